@@ -0,0 +1,41 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detection of dependency cycles in the acyclic dependency graph of the synthetic SDK, which is the common case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CycleDetectionBenchmark extends SyntheticSdkState {
+    private Map<String, SdkEntry> mappedEntries;
+
+    @Override
+    protected void setUp() throws Exception {
+        final Map<String, SdkEntry> bsnMap = new TreeMap<>();
+        this.mappedEntries = analyzeSdkArchive(bsnMap);
+        this.mojo.analyzeDependencies(this.mappedEntries, bsnMap, Collections.emptySet());
+    }
+
+    @Benchmark
+    public void detectDependencyCycles() throws Exception {
+        this.mojo.detectDependencyCycles(this.mappedEntries);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolution of dependencies of analyzed bundles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DependencyAnalysisBenchmark extends SyntheticSdkState {
+    @Param({"false", "true"})
+    public boolean versionRangeResolution;
+
+    private Map<String, SdkEntry> mappedEntries;
+    private Map<String, SdkEntry> bsnMap;
+
+    @Override
+    protected void setUp() throws Exception {
+        setField("versionRangeResolution", this.versionRangeResolution);
+        this.bsnMap = new TreeMap<>();
+        this.mappedEntries = analyzeSdkArchive(this.bsnMap);
+    }
+
+    @Benchmark
+    public Map<String, SdkEntry> analyzeDependencies() throws Exception {
+        // Dependencies of the previous invocation have to go, clearing them is cheap compared to the resolution.
+        this.mappedEntries.values().forEach(sdkEntry -> sdkEntry.getDependencies().clear());
+        this.mojo.analyzeDependencies(this.mappedEntries, this.bsnMap, Collections.emptySet());
+        return this.mappedEntries;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copying of bundle JARs out of the SDK archive into files, on a single thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EntryExtractionBenchmark extends SyntheticSdkState {
+    /**
+     * Store bundle JARs in the SDK archive without compression.
+     */
+    @Param({"false", "true"})
+    public boolean storedJars;
+
+    private final EntryExtractor entryExtractor = new EntryExtractor();
+    private List<ZipArchiveEntry> entries;
+    private Path outputDir;
+
+    @Override
+    protected SyntheticSdkGenerator generator() {
+        return super.generator().storedJars(this.storedJars);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        this.entries = new ArrayList<>();
+        for (final SdkEntry sdkEntry : mapSdkArchive().values()) {
+            if (sdkEntry.getArtifactEntry() != null) {
+                EquinoxMavenizerMojo.resolveDataOffset(this.sdkZipFile, sdkEntry.getArtifactEntry());
+                this.entries.add(sdkEntry.getArtifactEntry());
+            }
+        }
+        this.outputDir = Files.createDirectories(this.workDir.resolve("extracted"));
+    }
+
+    @Benchmark
+    public void extract() throws Exception {
+        try (final EntryExtractor.Batch batch = this.entryExtractor.newBatch(this.sdkZipPath, this.sdkZipFile)) {
+            for (int i = 0; i < this.entries.size(); i++) {
+                batch.extract(this.entries.get(i), this.outputDir.resolve(i + ".jar"));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of SDK archive entries to artifacts by their file names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FileNameParsingBenchmark extends SyntheticSdkState {
+    private List<ZipArchiveEntry> entries;
+
+    @Override
+    protected void setUp() {
+        this.entries = Collections.list(this.sdkZipFile.getEntriesInPhysicalOrder()).stream()
+                .filter(zae -> !zae.isDirectory() && zae.getName().startsWith("plugins/"))
+                .toList();
+    }
+
+    /**
+     * Parsing of file names alone.
+     */
+    @Benchmark
+    public Map<String, SdkEntry> analyzeOneEntry() {
+        final Map<String, SdkEntry> mappedEntries = new TreeMap<>();
+        for (final ZipArchiveEntry zae : this.entries) {
+            EquinoxMavenizerMojo.analyzeOneEntry(mappedEntries, zae);
+        }
+        return mappedEntries;
+    }
+
+    /**
+     * Mapping of the whole archive, including iteration over its central directory.
+     */
+    @Benchmark
+    public Map<String, SdkEntry> analyzeSdkArchive() {
+        return this.mojo.analyzeSdkArchive(this.sdkZipPath.toFile(), this.sdkZipFile);
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of bundle manifests on a single thread, either from extracted JARs or straight out of the SDK archive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ManifestParsingBenchmark extends SyntheticSdkState {
+    /**
+     * Read manifests from the SDK archive instead of from extracted JARs, as with {@code analyzeBeforeExtract}.
+     */
+    @Param({"false", "true"})
+    public boolean fromArchive;
+
+    private List<SdkEntry> templates;
+
+    @Override
+    protected void setUp() throws Exception {
+        final Map<String, SdkEntry> mappedEntries = mapSdkArchive();
+        if (this.fromArchive) {
+            for (final SdkEntry sdkEntry : mappedEntries.values()) {
+                if (sdkEntry.getArtifactEntry() != null) {
+                    EquinoxMavenizerMojo.resolveDataOffset(this.sdkZipFile, sdkEntry.getArtifactEntry());
+                }
+            }
+        } else {
+            try (final WorkerPool workerPool = new WorkerPool("extract", 0)) {
+                this.mojo.extractEntries(mappedEntries, workerPool);
+            }
+        }
+        this.templates = new ArrayList<>(mappedEntries.values());
+    }
+
+    @Benchmark
+    public void analyzeEntryMetadata(final Blackhole blackhole) throws Exception {
+        for (final SdkEntry template : this.templates) {
+            // Analysis fills in the entry, start with a fresh one each time.
+            final SdkEntry sdkEntry = new SdkEntry(template.getArtifactId(), template.getVersion());
+            sdkEntry.setSdkZipPath(template.getSdkZipPath());
+            sdkEntry.setSdkZipFile(template.getSdkZipFile());
+            sdkEntry.setArtifactEntry(template.getArtifactEntry());
+            sdkEntry.setArtifactPath(template.getArtifactPath());
+            blackhole.consume(this.mojo.analyzeEntryMetadata(sdkEntry));
+            blackhole.consume(sdkEntry);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation of POM files of all bundles and of the BOM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PomGenerationBenchmark extends SyntheticSdkState {
+    private Map<String, SdkEntry> mappedEntries;
+
+    @Override
+    protected void setUp() throws Exception {
+        final Map<String, SdkEntry> bsnMap = new TreeMap<>();
+        this.mappedEntries = analyzeSdkArchive(bsnMap);
+        this.mojo.analyzeDependencies(this.mappedEntries, bsnMap, Collections.emptySet());
+    }
+
+    @Benchmark
+    public void generatePomFiles() throws Exception {
+        // Overwrite the same files in each invocation.
+        setField("artifactCounter", 0);
+        setField("bomArtifacts", new ArrayList<>());
+        this.mojo.generatePomFiles(this.mappedEntries, this.mappedEntries.values());
+        this.mojo.generateBom(this.mappedEntries.values(), "1", "bom");
+    }
+}
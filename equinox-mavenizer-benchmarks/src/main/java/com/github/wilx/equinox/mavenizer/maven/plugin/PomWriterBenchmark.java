@@ -0,0 +1,164 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import com.sun.xml.txw2.output.IndentingXMLStreamWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing of a single bundle POM by {@link PomWriter}, compared to the {@code IndentingXMLStreamWriter} on top of the
+ * JDK XML stream writer which it replaced. Both write the same document, which is checked before the measurement. Run
+ * with {@code java -jar target/benchmarks.jar PomWriterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PomWriterBenchmark {
+    private static final String GROUP_ID = "org.example.synthetic";
+    private static final String XSI_URL = "http://www.w3.org/2001/XMLSchema-instance";
+
+    /**
+     * Number of dependencies in the POM.
+     */
+    @Param({"4", "32"})
+    public int dependencies;
+
+    private String artifactId;
+    private String[] depArtifactIds;
+
+    @Setup
+    public void setUp() throws IOException, XMLStreamException {
+        this.artifactId = SyntheticSdkGenerator.bsn(this.dependencies);
+        this.depArtifactIds = new String[this.dependencies];
+        for (int i = 0; i < this.dependencies; i++) {
+            this.depArtifactIds[i] = SyntheticSdkGenerator.bsn(i);
+        }
+
+        final StringWriter pomWriterOut = new StringWriter();
+        writePomWriter(pomWriterOut);
+        final StringWriter xmlStreamWriterOut = new StringWriter();
+        writeXmlStreamWriter(xmlStreamWriterOut);
+        if (!pomWriterOut.toString().equals(xmlStreamWriterOut.toString())) {
+            throw new IllegalStateException("The writers differ:\n" + pomWriterOut + "\n" + xmlStreamWriterOut);
+        }
+    }
+
+    @Benchmark
+    public void pomWriter() throws IOException {
+        writePomWriter(Writer.nullWriter());
+    }
+
+    @Benchmark
+    public void xmlStreamWriter() throws XMLStreamException {
+        writeXmlStreamWriter(Writer.nullWriter());
+    }
+
+    private void writePomWriter(final Writer out) throws IOException {
+        final PomWriter xml = new PomWriter(out);
+        xml.startProject();
+        writeGav(xml, this.artifactId, false);
+        xml.newLine();
+        xml.element("name", "Synthetic bundle");
+        xml.element("description", "Synthetic bundle & <friends>");
+        xml.newLine();
+        xml.newLine();
+        xml.comment("These dependencies are best effort generated dependencies.");
+        xml.newLine();
+        xml.comment("They are not necessarily complete.");
+        xml.startElement("dependencies");
+        for (int i = 0; i < this.dependencies; i++) {
+            xml.startElement("dependency");
+            writeGav(xml, this.depArtifactIds[i], i % 8 == 0);
+            xml.endElement();
+        }
+        xml.endElement();
+        xml.endProject();
+        xml.flush();
+    }
+
+    private static void writeGav(final PomWriter xml, final String artifactId, final boolean optional)
+            throws IOException {
+        xml.element("groupId", GROUP_ID);
+        xml.element("artifactId", artifactId);
+        xml.element("version", SyntheticSdkGenerator.BUNDLE_VERSION);
+        if (optional) {
+            xml.element("optional", "true");
+        }
+    }
+
+    /**
+     * Writes the POM the way the mavenizer did before {@link PomWriter}, with a new factory for each POM.
+     */
+    private void writeXmlStreamWriter(final Writer out) throws XMLStreamException {
+        final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+        xmlOutputFactory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+        final IndentingXMLStreamWriter xml = new IndentingXMLStreamWriter(
+                xmlOutputFactory.createXMLStreamWriter(out));
+        xml.writeStartDocument("UTF-8", "1.0");
+        final String mavenUri = "http://maven.apache.org/POM/4.0.0";
+        xml.setDefaultNamespace(mavenUri);
+        xml.setPrefix("xsi", XSI_URL);
+        xml.writeStartElement("project");
+        xml.writeAttribute(XSI_URL, "schemaLocation",
+                "http://maven.apache.org/POM/4.0.0 https://maven.apache.org/xsd/maven-4.0.0.xsd");
+        xml.writeStartElement(mavenUri, "modelVersion");
+        xml.writeCharacters("4.0.0");
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+
+        writeGav(xml, this.artifactId, false);
+        xml.writeCharacters("\n");
+        writeTag(xml, "Synthetic bundle", "name");
+        writeTag(xml, "Synthetic bundle & <friends>", "description");
+        xml.writeCharacters("\n");
+        xml.writeCharacters("\n");
+        xml.writeComment("These dependencies are best effort generated dependencies.");
+        xml.writeCharacters("\n");
+        xml.writeComment("They are not necessarily complete.");
+        xml.writeStartElement("dependencies");
+        for (int i = 0; i < this.dependencies; i++) {
+            xml.writeStartElement("dependency");
+            writeGav(xml, this.depArtifactIds[i], i % 8 == 0);
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+    }
+
+    private static void writeGav(final IndentingXMLStreamWriter xml, final String artifactId, final boolean optional)
+            throws XMLStreamException {
+        writeTag(xml, GROUP_ID, "groupId");
+        writeTag(xml, artifactId, "artifactId");
+        writeTag(xml, SyntheticSdkGenerator.BUNDLE_VERSION, "version");
+        if (optional) {
+            writeTag(xml, "true", "optional");
+        }
+    }
+
+    private static void writeTag(final IndentingXMLStreamWriter xml, final String text, final String tag)
+            throws XMLStreamException {
+        xml.writeStartElement(tag);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import com.github.wilx.equinox.mavenizer.maven.plugin.PhaseListener.Phase;
+import org.apache.commons.io.file.PathUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.repository.LocalRepository;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Offline scaling test of the whole mavenizer. For each bundle count, it generates a synthetic SDK archive, runs the
+ * mojo on it with installation into a temporary local repository, checks that all bundles got installed and reports
+ * wall time, peak heap and heap retained after each phase, as CSV on standard output.
+ * <p>
+ * Run it with {@code java -cp target/benchmarks.jar com.github.wilx.equinox.mavenizer.maven.plugin.ScalingSuite
+ * [bundles...]}, with enough heap for the largest bundle count. Bundle counts default to 100, 1000, 10000 and 50000.
+ */
+public final class ScalingSuite {
+    private static final List<Integer> DEFAULT_BUNDLES = List.of(100, 1_000, 10_000, 50_000);
+    private static final double MIB = 1024 * 1024;
+
+    private final RepositorySystem repositorySystem;
+    private final PrintStream out;
+
+    @SuppressWarnings("deprecation")
+    private ScalingSuite(final PrintStream out) {
+        this.repositorySystem = MavenRepositorySystemUtils.newServiceLocator().getService(RepositorySystem.class);
+        this.out = out;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final List<Integer> bundleCounts = args.length == 0
+                ? DEFAULT_BUNDLES
+                : Stream.of(args).map(Integer::valueOf).toList();
+        final ScalingSuite suite = new ScalingSuite(System.out);
+        suite.out.println("bundles,phase,wallMillis,peakHeapMiB,retainedHeapMiB");
+        for (final int bundles : bundleCounts) {
+            suite.run(bundles);
+        }
+    }
+
+    private void run(final int bundles) throws Exception {
+        final Path workDir = Files.createTempDirectory("equinox-mavenizer-scaling");
+        try {
+            final Path sdkZipPath = workDir.resolve("sdk.zip");
+            new SyntheticSdkGenerator().bundles(bundles).generate(sdkZipPath);
+            final Path localRepoPath = workDir.resolve("repository");
+
+            final EquinoxMavenizerMojo mojo = newMojo(workDir, sdkZipPath, localRepoPath);
+            final PhaseRecorder recorder = new PhaseRecorder();
+            mojo.setPhaseListener(recorder);
+
+            // Start each run from a heap without garbage of the previous one.
+            System.gc();
+            final long start = System.nanoTime();
+            mojo.execute();
+            final long wallNanos = System.nanoTime() - start;
+
+            final long installedPoms = countPoms(localRepoPath);
+            if (installedPoms != bundles + 1) {
+                throw new IllegalStateException("Expected " + (bundles + 1) + " installed POM files, found "
+                        + installedPoms);
+            }
+
+            recorder.wallNanos.forEach((phase, nanos) -> report(bundles, phase.name(), nanos,
+                    recorder.peakHeap.get(phase), recorder.retainedHeap.get(phase)));
+            report(bundles, "TOTAL", wallNanos, max(recorder.peakHeap), max(recorder.retainedHeap));
+        } finally {
+            PathUtils.deleteDirectory(workDir);
+        }
+    }
+
+    private void report(final int bundles, final String phase, final long wallNanos, final long peakHeap,
+            final long retainedHeap) {
+        this.out.printf(Locale.ROOT, "%d,%s,%d,%.1f,%.1f%n", bundles, phase, TimeUnit.NANOSECONDS.toMillis(wallNanos),
+                peakHeap / MIB, retainedHeap / MIB);
+    }
+
+    private static long max(final Map<Phase, Long> values) {
+        return values.values().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    /**
+     * @return mojo configured the same way as by Maven, offline, with default parameter values
+     */
+    private EquinoxMavenizerMojo newMojo(final Path workDir, final Path sdkZipPath, final Path localRepoPath)
+            throws IllegalAccessException {
+        final DefaultRepositorySystemSession repositorySession = MavenRepositorySystemUtils.newSession();
+        repositorySession.setOffline(true);
+        repositorySession.setLocalRepositoryManager(this.repositorySystem.newLocalRepositoryManager(repositorySession,
+                new LocalRepository(localRepoPath.toFile())));
+        final MavenSession session = new MavenSession(null, repositorySession, new DefaultMavenExecutionRequest(),
+                new DefaultMavenExecutionResult());
+
+        final EquinoxMavenizerMojo mojo = new EquinoxMavenizerMojo(this.repositorySystem, null, null);
+        FieldUtils.writeField(mojo, "session", session, true);
+        FieldUtils.writeField(mojo, "offline", true, true);
+        FieldUtils.writeField(mojo, "buildDir", workDir.resolve("target").toFile(), true);
+        FieldUtils.writeField(mojo, "groupId", "org.example.synthetic", true);
+        FieldUtils.writeField(mojo, "equinoxSdkZipFiles", List.of(sdkZipPath.toFile()), true);
+        FieldUtils.writeField(mojo, "maxReportedCycles", 100, true);
+        FieldUtils.writeField(mojo, "cycleDetectionTimeout", 10_000L, true);
+        FieldUtils.writeField(mojo, "installBatchSize", 1, true);
+        FieldUtils.writeField(mojo, "installStrategy", InstallStrategy.COPY, true);
+        return mojo;
+    }
+
+    private static long countPoms(final Path localRepoPath) throws IOException {
+        try (final Stream<Path> paths = Files.walk(localRepoPath)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(".pom")).count();
+        }
+    }
+
+    /**
+     * Records wall time and peak heap of phases. Phases which run several times are summed up, with the highest peak.
+     * Peak heap is the sum of peak usages of the heap memory pools, which are reset when a phase starts. Retained heap
+     * is the heap used after a full garbage collection at the end of the phase, outside of the measured wall time.
+     */
+    private static final class PhaseRecorder implements PhaseListener {
+        private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        private final Map<Phase, Long> wallNanos = new EnumMap<>(Phase.class);
+        private final Map<Phase, Long> peakHeap = new EnumMap<>(Phase.class);
+        private final Map<Phase, Long> retainedHeap = new EnumMap<>(Phase.class);
+        private long phaseStart;
+
+        @Override
+        public void phaseStarted(final Phase phase) {
+            this.heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            this.phaseStart = System.nanoTime();
+        }
+
+        @Override
+        public void phaseFinished(final Phase phase, final long entries) {
+            final long nanos = System.nanoTime() - this.phaseStart;
+            final long peak = this.heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            this.wallNanos.merge(phase, nanos, Long::sum);
+            this.peakHeap.merge(phase, peak, Math::max);
+            System.gc();
+            this.retainedHeap.merge(phase, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                    Math::max);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates p2 style SDK archives with synthetic bundles, so that the mavenizer can be measured without downloading real
+ * SDKs. Bundle {@code i} exports its own packages and imports packages of randomly chosen bundles with lower index, so
+ * that the dependency graph is acyclic. Some bundles also export a package of a bundle with lower index (split
+ * package), are fragments of a bundle with lower index or declare DS components, in which case bundle 0 is the DS
+ * implementation. The output depends only on the settings, including the random seed.
+ */
+public final class SyntheticSdkGenerator {
+    public static final String BSN_PREFIX = "org.example.synthetic.b";
+    public static final String BUNDLE_VERSION = "1.0.0.v20240101-0000";
+    private static final String PACKAGE_VERSION = "1.0.0";
+
+    private int bundles = 1000;
+    private int exportsPerBundle = 2;
+    private int importsPerBundle = 4;
+    private int classesPerBundle = 8;
+    private double sourcesRatio = 0.5;
+    private double localizedRatio = 0.25;
+    private double splitPackageRatio = 0.05;
+    private double fragmentRatio = 0.05;
+    private double componentRatio = 0.2;
+    private boolean storedJars;
+    private long seed = 1;
+
+    /**
+     * Number of bundles.
+     */
+    public SyntheticSdkGenerator bundles(final int bundles) {
+        this.bundles = bundles;
+        return this;
+    }
+
+    /**
+     * Number of packages exported by each bundle.
+     */
+    public SyntheticSdkGenerator exportsPerBundle(final int exportsPerBundle) {
+        this.exportsPerBundle = exportsPerBundle;
+        return this;
+    }
+
+    /**
+     * Maximum number of packages imported by each bundle.
+     */
+    public SyntheticSdkGenerator importsPerBundle(final int importsPerBundle) {
+        this.importsPerBundle = importsPerBundle;
+        return this;
+    }
+
+    /**
+     * Number of dummy class files in each bundle.
+     */
+    public SyntheticSdkGenerator classesPerBundle(final int classesPerBundle) {
+        this.classesPerBundle = classesPerBundle;
+        return this;
+    }
+
+    /**
+     * Fraction of bundles with a sources JAR.
+     */
+    public SyntheticSdkGenerator sourcesRatio(final double sourcesRatio) {
+        this.sourcesRatio = sourcesRatio;
+        return this;
+    }
+
+    /**
+     * Fraction of bundles with name and description in {@code plugin.properties}.
+     */
+    public SyntheticSdkGenerator localizedRatio(final double localizedRatio) {
+        this.localizedRatio = localizedRatio;
+        return this;
+    }
+
+    /**
+     * Fraction of bundles exporting also a package exported by another bundle.
+     */
+    public SyntheticSdkGenerator splitPackageRatio(final double splitPackageRatio) {
+        this.splitPackageRatio = splitPackageRatio;
+        return this;
+    }
+
+    /**
+     * Fraction of bundles which are fragments.
+     */
+    public SyntheticSdkGenerator fragmentRatio(final double fragmentRatio) {
+        this.fragmentRatio = fragmentRatio;
+        return this;
+    }
+
+    /**
+     * Fraction of bundles with DS components.
+     */
+    public SyntheticSdkGenerator componentRatio(final double componentRatio) {
+        this.componentRatio = componentRatio;
+        return this;
+    }
+
+    /**
+     * Store bundle JARs in the SDK archive without compression, instead of deflating them.
+     */
+    public SyntheticSdkGenerator storedJars(final boolean storedJars) {
+        this.storedJars = storedJars;
+        return this;
+    }
+
+    public SyntheticSdkGenerator seed(final long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public static String bsn(final int bundle) {
+        return BSN_PREFIX + String.format(Locale.ROOT, "%05d", bundle);
+    }
+
+    private String exportedPackage(final int bundle, final int pkg) {
+        return bsn(bundle) + ".p" + pkg;
+    }
+
+    /**
+     * Writes the SDK archive.
+     */
+    public void generate(final Path sdkZipPath) throws IOException {
+        final Random random = new Random(this.seed);
+        try (final OutputStream out = Files.newOutputStream(sdkZipPath);
+             final ZipOutputStream zip = new ZipOutputStream(out)) {
+            writeEntry(zip, "artifacts.jar", jar(new Manifest(), List.of()), false);
+            writeEntry(zip, "content.jar", jar(new Manifest(), List.of()), false);
+            zip.putNextEntry(new ZipEntry("plugins/"));
+            zip.closeEntry();
+            for (int i = 0; i < this.bundles; i++) {
+                final String fileName = bsn(i) + "_" + BUNDLE_VERSION;
+                writeEntry(zip, "plugins/" + fileName + ".jar", bundleJar(i, random), this.storedJars);
+                if (random.nextDouble() < this.sourcesRatio) {
+                    writeEntry(zip, "plugins/" + bsn(i) + ".source_" + BUNDLE_VERSION + ".jar", sourcesJar(i, random),
+                            this.storedJars);
+                }
+            }
+        }
+    }
+
+    private byte[] bundleJar(final int bundle, final Random random) throws IOException {
+        final Manifest manifest = new Manifest();
+        final Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue("Bundle-ManifestVersion", "2");
+        attributes.putValue("Bundle-SymbolicName", bsn(bundle) + ";singleton:=true");
+        attributes.putValue("Bundle-Version", BUNDLE_VERSION);
+        attributes.putValue("Bundle-Vendor", "Example");
+        attributes.putValue("Bundle-RequiredExecutionEnvironment", "JavaSE-17");
+
+        final List<JarContent> contents = new ArrayList<>();
+        if (random.nextDouble() < this.localizedRatio) {
+            attributes.putValue("Bundle-Localization", "plugin");
+            attributes.putValue("Bundle-Name", "%pluginName");
+            attributes.putValue("Bundle-Description", "%pluginDescription");
+            contents.add(new JarContent("plugin.properties", ("pluginName = Synthetic bundle " + bundle
+                    + "\npluginDescription = Synthetic bundle number " + bundle + " & <friends>\n")
+                    .getBytes(StandardCharsets.ISO_8859_1)));
+        } else {
+            attributes.putValue("Bundle-Name", "Synthetic bundle " + bundle);
+        }
+
+        final StringJoiner exports = new StringJoiner(",");
+        for (int p = 0; p < this.exportsPerBundle; p++) {
+            exports.add(exportedPackage(bundle, p) + ";version=\"" + PACKAGE_VERSION + "\"");
+        }
+        if (bundle > 0 && this.exportsPerBundle > 0 && random.nextDouble() < this.splitPackageRatio) {
+            final String pkg = exportedPackage(random.nextInt(bundle), random.nextInt(this.exportsPerBundle));
+            exports.add(pkg + ";version=\"" + PACKAGE_VERSION + "\"");
+        }
+        if (exports.length() > 0) {
+            attributes.putValue("Export-Package", exports.toString());
+        }
+
+        if (bundle > 0 && random.nextDouble() < this.fragmentRatio) {
+            attributes.putValue("Fragment-Host", bsn(random.nextInt(bundle)) + ";bundle-version=\"[1.0.0,2.0.0)\"");
+        }
+
+        if (bundle == 0 && this.componentRatio > 0) {
+            attributes.putValue("Provide-Capability", "osgi.extender;osgi.extender=\"osgi.component\"");
+        } else if (random.nextDouble() < this.componentRatio) {
+            final String component = "OSGI-INF/" + bsn(bundle) + ".C0.xml";
+            attributes.putValue("Service-Component", component);
+            contents.add(new JarContent(component, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<scr:component xmlns:scr=\"http://www.osgi.org/xmlns/scr/v1.3.0\" name=\"" + bsn(bundle)
+                    + ".C0\">\n   <implementation class=\"" + bsn(bundle) + ".C0\"/>\n</scr:component>\n")
+                    .getBytes(StandardCharsets.UTF_8)));
+        }
+
+        final StringJoiner imports = new StringJoiner(",");
+        final int importCount = bundle == 0 || this.exportsPerBundle == 0 ? 0 : random.nextInt(this.importsPerBundle + 1);
+        for (int j = 0; j < importCount; j++) {
+            final String pkg = exportedPackage(random.nextInt(bundle), random.nextInt(this.exportsPerBundle));
+            imports.add(pkg + ";version=\"[1.0.0,2.0.0)\"" + (random.nextInt(8) == 0 ? ";resolution:=optional" : ""));
+        }
+        if (importCount > 0) {
+            attributes.putValue("Import-Package", imports.toString());
+        }
+
+        for (int c = 0; c < this.classesPerBundle; c++) {
+            contents.add(new JarContent(bsn(bundle).replace('.', '/') + "/C" + c + ".class", classBytes(random)));
+        }
+        return jar(manifest, contents);
+    }
+
+    private byte[] sourcesJar(final int bundle, final Random random) throws IOException {
+        final Manifest manifest = new Manifest();
+        final Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue("Bundle-ManifestVersion", "2");
+        attributes.putValue("Bundle-SymbolicName", bsn(bundle) + ".source");
+        attributes.putValue("Bundle-Version", BUNDLE_VERSION);
+        attributes.putValue("Eclipse-SourceBundle", bsn(bundle) + ";version=\"" + BUNDLE_VERSION + "\"");
+
+        final List<JarContent> contents = new ArrayList<>();
+        for (int c = 0; c < this.classesPerBundle; c++) {
+            final StringBuilder source = new StringBuilder("package ").append(bsn(bundle)).append(";\n\nclass C")
+                    .append(c).append(" {\n");
+            final int methods = 5 + random.nextInt(20);
+            for (int m = 0; m < methods; m++) {
+                source.append("    int m").append(m).append("() { return ").append(random.nextInt()).append("; }\n");
+            }
+            source.append("}\n");
+            contents.add(new JarContent(bsn(bundle).replace('.', '/') + "/C" + c + ".java",
+                    source.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        return jar(manifest, contents);
+    }
+
+    /**
+     * @return bytes compressible about as well as real class files
+     */
+    private static byte[] classBytes(final Random random) {
+        final byte[] bytes = new byte[512 + random.nextInt(4096)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt() : 'a' + random.nextInt(8));
+        }
+        return bytes;
+    }
+
+    private record JarContent(String name, byte[] bytes) {
+    }
+
+    private static byte[] jar(final Manifest manifest, final List<JarContent> contents) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final JarOutputStream jar = new JarOutputStream(bytes, manifest)) {
+            for (final JarContent content : contents) {
+                jar.putNextEntry(new ZipEntry(content.name()));
+                jar.write(content.bytes());
+                jar.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeEntry(final ZipOutputStream zip, final String name, final byte[] bytes,
+            final boolean stored) throws IOException {
+        final ZipEntry entry = new ZipEntry(name);
+        if (stored) {
+            final CRC32 crc = new CRC32();
+            crc.update(bytes);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(bytes.length);
+            entry.setCompressedSize(bytes.length);
+            entry.setCrc(crc.getValue());
+        }
+        zip.putNextEntry(entry);
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+}
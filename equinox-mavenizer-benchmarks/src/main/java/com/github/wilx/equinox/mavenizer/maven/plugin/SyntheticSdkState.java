@@ -0,0 +1,97 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.file.PathUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Base of benchmark states working with a synthetic SDK archive. The archive is generated into a temporary directory
+ * once per trial, together with a mojo configured the same way as by Maven, with default parameter values.
+ */
+@State(Scope.Benchmark)
+public abstract class SyntheticSdkState {
+    /**
+     * Number of bundles in the synthetic SDK archive.
+     */
+    @Param("1000")
+    public int bundles;
+
+    protected Path workDir;
+    protected Path sdkZipPath;
+    protected ZipFile sdkZipFile;
+    protected EquinoxMavenizerMojo mojo;
+
+    @Setup(Level.Trial)
+    public final void setUpSdk() throws Exception {
+        this.workDir = Files.createTempDirectory("equinox-mavenizer-benchmark");
+        this.sdkZipPath = this.workDir.resolve("sdk.zip");
+        generator().generate(this.sdkZipPath);
+        this.sdkZipFile = ZipFile.builder().setPath(this.sdkZipPath).get();
+
+        this.mojo = new EquinoxMavenizerMojo(null, null, null);
+        setField("groupId", "org.example.synthetic");
+        setField("ignoredBsns", Collections.emptySet());
+        setField("maxReportedCycles", 100);
+        setField("cycleDetectionTimeout", 10_000L);
+        setField("sdkArtifactsDirPath", Files.createDirectories(this.workDir.resolve("sdkArtifacts")));
+        setUp();
+    }
+
+    /**
+     * Prepares the benchmark once the SDK archive and the mojo are ready. JMH does not order setup methods of a class
+     * and its superclass, so subclasses override this instead of declaring their own.
+     */
+    protected void setUp() throws Exception {
+    }
+
+    /**
+     * @return generator of the synthetic SDK archive, subclasses can change its settings
+     */
+    protected SyntheticSdkGenerator generator() {
+        return new SyntheticSdkGenerator().bundles(this.bundles);
+    }
+
+    /**
+     * @return entries of the SDK archive by artifactId, as mapped by the mojo
+     */
+    protected Map<String, SdkEntry> mapSdkArchive() {
+        return new TreeMap<>(this.mojo.analyzeSdkArchive(this.sdkZipPath.toFile(), this.sdkZipFile));
+    }
+
+    /**
+     * @return analyzed entries of the SDK archive by artifactId, with their BSNs registered into the map
+     */
+    protected Map<String, SdkEntry> analyzeSdkArchive(final Map<String, SdkEntry> bsnMap) throws Exception {
+        final Map<String, SdkEntry> mappedEntries = mapSdkArchive();
+        this.mojo.analyzeMetadata(mappedEntries, bsnMap);
+        return mappedEntries;
+    }
+
+    /**
+     * Sets a mojo parameter or field, the way Maven injects parameters.
+     */
+    protected void setField(final String name, final Object value) throws IllegalAccessException {
+        FieldUtils.writeField(this.mojo, name, value, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownSdk() throws IOException {
+        if (this.sdkZipFile != null) {
+            this.sdkZipFile.close();
+        }
+        PathUtils.deleteDirectory(this.workDir);
+    }
+}
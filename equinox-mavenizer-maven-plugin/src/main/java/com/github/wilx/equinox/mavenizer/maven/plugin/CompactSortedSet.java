@@ -0,0 +1,63 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
+
+/**
+ * Sorted set of elements which is filled in while a bundle is analyzed and read many times afterward. Elements are
+ * collected in a {@link TreeSet} until {@link #compact(UnaryOperator)} moves them into a plain array, which takes a
+ * fraction of the memory of the tree. The set is read only once compacted.
+ */
+final class CompactSortedSet<T> extends AbstractSet<T> {
+    private static final Object[] EMPTY = {};
+
+    private Set<T> elements;
+    private Object[] compacted;
+
+    CompactSortedSet(final Comparator<? super T> comparator) {
+        this.elements = new TreeSet<>(comparator);
+    }
+
+    @Override
+    public boolean add(final T element) {
+        if (this.elements == null) {
+            throw new IllegalStateException("Set is already compacted");
+        }
+        return this.elements.add(element);
+    }
+
+    /**
+     * Moves the elements into an array, passing each of them through the function first, which has to keep their
+     * order. Compacting a compacted set does nothing.
+     */
+    void compact(final UnaryOperator<T> canonicalizer) {
+        if (this.elements == null) {
+            return;
+        }
+        final Object[] array = this.elements.isEmpty() ? EMPTY : new Object[this.elements.size()];
+        int i = 0;
+        for (final T element : this.elements) {
+            array[i++] = canonicalizer.apply(element);
+        }
+        this.compacted = array;
+        this.elements = null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<T> iterator() {
+        return this.elements != null
+                ? this.elements.iterator()
+                : (Iterator<T>) Arrays.asList(this.compacted).iterator();
+    }
+
+    @Override
+    public int size() {
+        return this.elements != null ? this.elements.size() : this.compacted.length;
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
+import org.jgrapht.alg.connectivity.KosarajuStrongConnectivityInspector;
+import org.jgrapht.alg.cycle.HawickJamesSimpleCycles;
+import org.jgrapht.graph.AsSubgraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects cycles in a dependency graph. Strongly connected components are found in linear time first. Only
+ * components with cycles are examined further: a shortest cycle is found in each of them and simple cycles are
+ * enumerated within them, up to a limit on their number and on the time spent.
+ */
+final class DependencyCycleDetector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DependencyCycleDetector.class);
+
+    private final Graph<String, DefaultEdge> graph;
+    private final int maxReportedCycles;
+    private final long deadline;
+
+    /**
+     * @param maxReportedCycles maximum number of enumerated simple cycles
+     * @param timeoutMillis     maximum time spent looking for shortest and simple cycles
+     */
+    DependencyCycleDetector(final Graph<String, DefaultEdge> graph, final int maxReportedCycles,
+            final long timeoutMillis) {
+        this.graph = graph;
+        this.maxReportedCycles = maxReportedCycles;
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Logs strongly connected components with cycles, a shortest cycle of each of them and simple cycles within them.
+     *
+     * @return the logged components and cycles
+     */
+    Report detect() {
+        final List<SortedSet<String>> components = new ArrayList<>();
+        for (final Set<String> component : new KosarajuStrongConnectivityInspector<>(this.graph)
+                .stronglyConnectedSets()) {
+            if (component.size() > 1) {
+                components.add(new TreeSet<>(component));
+            } else {
+                final String vertex = component.iterator().next();
+                if (this.graph.containsEdge(vertex, vertex)) {
+                    components.add(new TreeSet<>(component));
+                }
+            }
+        }
+        if (components.isEmpty()) {
+            return new Report(List.of(), List.of(), List.of(), true);
+        }
+        components.sort(Comparator.<SortedSet<String>>comparingInt(Set::size).reversed()
+                .thenComparing(SortedSet::first));
+
+        LOGGER.error("There are {} strongly connected components with cycles in the dependency graph, of sizes {}",
+                components.size(), components.stream().map(Set::size).toList());
+        final List<List<String>> shortestCycles = new ArrayList<>(components.size());
+        final List<List<String>> cycles = new ArrayList<>();
+        for (final SortedSet<String> component : components) {
+            LOGGER.error("Strongly connected component of {} bundles: {}", component.size(), component);
+            final List<String> shortestCycle = findShortestCycle(component);
+            LOGGER.error("Shortest cycle: {}", shortestCycle);
+            shortestCycles.add(shortestCycle);
+            if (cycles.size() < this.maxReportedCycles && !isTimedOut()) {
+                enumerateCycles(component, this.maxReportedCycles - cycles.size(), cycles);
+            }
+        }
+        final boolean complete = cycles.size() < this.maxReportedCycles && !isTimedOut();
+        if (!complete) {
+            LOGGER.warn("Simple cycles were not enumerated completely, limited to {} cycles and the time limit",
+                    this.maxReportedCycles);
+        }
+        return new Report(components, shortestCycles, cycles, complete);
+    }
+
+    /**
+     * Finds a shortest cycle within the component by a breadth first search from each of its vertices. Once out of
+     * time, the shortest cycle found so far is returned. At least one search is done.
+     */
+    private List<String> findShortestCycle(final SortedSet<String> component) {
+        List<String> shortest = null;
+        for (final String start : component) {
+            final List<String> cycle = findShortestCycleThrough(start, component);
+            if (shortest == null || cycle.size() < shortest.size()) {
+                shortest = cycle;
+            }
+            // Cycle of a single vertex or two vertices cannot get any shorter.
+            if (shortest.size() <= 3 || isTimedOut()) {
+                break;
+            }
+        }
+        return shortest;
+    }
+
+    /**
+     * @return shortest cycle through the start vertex, starting and ending with it
+     */
+    private List<String> findShortestCycleThrough(final String start, final Set<String> component) {
+        final Map<String, String> parents = new HashMap<>();
+        final Deque<String> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            final String vertex = queue.poll();
+            for (final String successor : Graphs.successorListOf(this.graph, vertex)) {
+                if (successor.equals(start)) {
+                    final List<String> cycle = new ArrayList<>();
+                    cycle.add(start);
+                    for (String v = vertex; !v.equals(start); v = parents.get(v)) {
+                        cycle.add(v);
+                    }
+                    cycle.add(start);
+                    Collections.reverse(cycle);
+                    return cycle;
+                }
+                if (component.contains(successor) && !parents.containsKey(successor)) {
+                    parents.put(successor, vertex);
+                    queue.add(successor);
+                }
+            }
+        }
+        throw new IllegalStateException("No cycle through " + start + " in its strongly connected component");
+    }
+
+    /**
+     * @param cycles collects the enumerated cycles
+     */
+    private void enumerateCycles(final Set<String> component, final int limit, final List<List<String>> cycles) {
+        final int[] count = {0};
+        try {
+            new HawickJamesSimpleCycles<>(new AsSubgraph<>(this.graph, component)).findSimpleCycles(cycle -> {
+                LOGGER.error("{}", cycle);
+                cycles.add(cycle);
+                if (++count[0] >= limit || isTimedOut()) {
+                    throw new EnumerationStopped();
+                }
+            });
+        } catch (final EnumerationStopped e) {
+            LOGGER.debug("Stopped enumeration of simple cycles after {} cycles", count[0]);
+        }
+    }
+
+    private boolean isTimedOut() {
+        return System.nanoTime() - this.deadline > 0;
+    }
+
+    /**
+     * Cycles found in the graph.
+     *
+     * @param components     strongly connected components with cycles, the largest first
+     * @param shortestCycles a shortest cycle of each of the components, starting and ending with the same vertex
+     * @param cycles         enumerated simple cycles
+     * @param complete       false if enumeration of simple cycles was stopped by the limits
+     */
+    record Report(List<SortedSet<String>> components, List<List<String>> shortestCycles, List<List<String>> cycles,
+            boolean complete) {
+        boolean hasCycles() {
+            return !this.components.isEmpty();
+        }
+    }
+
+    /**
+     * Stops enumeration of cycles from within the callback. It is used for control flow only, so it has no message and
+     * no stack trace.
+     */
+    private static final class EnumerationStopped extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        EnumerationStopped() {
+            super(null, null, false, false);
+        }
+    }
+}
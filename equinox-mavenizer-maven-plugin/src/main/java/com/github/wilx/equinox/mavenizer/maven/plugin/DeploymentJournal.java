@@ -0,0 +1,137 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only journal of artifacts successfully deployed to a remote repository. Each line records the artifact
+ * coordinates and the SHA-256 digest of the deployed file. The first line records the URL of the repository so that a
+ * journal of a deployment to a different repository is not resumed.
+ */
+final class DeploymentJournal implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeploymentJournal.class);
+    private static final String HEADER_PREFIX = "# repository ";
+
+    private final Map<String, String> deployedDigests;
+    private final Map<Path, String> digests = new ConcurrentHashMap<>();
+    private final BufferedWriter writer;
+
+    private DeploymentJournal(final Map<String, String> deployedDigests, final BufferedWriter writer) {
+        this.deployedDigests = deployedDigests;
+        this.writer = writer;
+    }
+
+    /**
+     * Opens the journal for deployment to the given repository.
+     *
+     * @param resume keep the existing journal of a deployment to the same repository and append to it; otherwise the
+     *               journal is started anew
+     */
+    static DeploymentJournal open(final Path journalFile, final String repositoryUrl, final boolean resume)
+            throws IOException {
+        final String header = HEADER_PREFIX + repositoryUrl;
+        final Map<String, String> deployedDigests = new ConcurrentHashMap<>();
+        boolean append = false;
+        if (resume) {
+            try (final BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+                if (header.equals(reader.readLine())) {
+                    append = true;
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        final int space = line.lastIndexOf(' ');
+                        // Skip a possibly truncated last line of an interrupted run.
+                        if (space > 0 && line.length() - space - 1 == 64) {
+                            deployedDigests.put(line.substring(0, space), line.substring(space + 1));
+                        }
+                    }
+                } else {
+                    LOGGER.info("Not resuming deployment journal {} of a different repository", journalFile);
+                }
+            } catch (final NoSuchFileException e) {
+                LOGGER.debug("Deployment journal {} does not exist yet", journalFile);
+            }
+            LOGGER.info("Resuming deployment with {} artifacts already deployed according to journal {}",
+                    deployedDigests.size(), journalFile);
+        }
+
+        Files.createDirectories(journalFile.getParent());
+        final BufferedWriter writer;
+        if (append) {
+            writer = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            // Terminate a possibly truncated last line.
+            writer.newLine();
+        } else {
+            writer = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            writer.write(header);
+            writer.newLine();
+        }
+        writer.flush();
+        return new DeploymentJournal(deployedDigests, writer);
+    }
+
+    /**
+     * @return true if all the artifacts were deployed before with identical content
+     */
+    boolean isDeployed(final Collection<Artifact> artifacts) {
+        for (final Artifact artifact : artifacts) {
+            if (!digestOf(artifact).equals(this.deployedDigests.get(ArtifactIdUtils.toId(artifact)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records successfully deployed artifacts. The journal is flushed so that it survives an interrupted run.
+     */
+    void recordDeployed(final Collection<Artifact> artifacts) {
+        final StringBuilder sb = new StringBuilder();
+        for (final Artifact artifact : artifacts) {
+            final String digest = digestOf(artifact);
+            sb.append(ArtifactIdUtils.toId(artifact)).append(' ').append(digest).append(System.lineSeparator());
+        }
+        synchronized (this.writer) {
+            try {
+                this.writer.write(sb.toString());
+                this.writer.flush();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private String digestOf(final Artifact artifact) {
+        return this.digests.computeIfAbsent(artifact.getFile().toPath(), path -> {
+            try {
+                return EquinoxMavenizerMojo.sha256(path).toString();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this.writer) {
+            this.writer.close();
+        }
+    }
+}
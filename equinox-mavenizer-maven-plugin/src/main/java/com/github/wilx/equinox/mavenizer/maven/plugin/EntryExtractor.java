@@ -0,0 +1,196 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * Copies entries out of SDK archives. Entries are extracted in batches of entries of a single archive, see
+ * {@link #newBatch(Path, ZipFile)}. Entries stored without compression are transferred directly from the archive file
+ * channel to the destination file channel, without going through the heap. Deflated entries are inflated using the
+ * inflater and buffers of the batch. Throughput of each mode is measured.
+ */
+final class EntryExtractor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntryExtractor.class);
+    private static final int BUFFER_SIZE = 0x10000;
+
+    private enum Mode {
+        STORED, DEFLATED, OTHER
+    }
+
+    private final LongAdder[] entries = newAdders();
+    private final LongAdder[] bytes = newAdders();
+    private final LongAdder[] nanos = newAdders();
+
+    private static LongAdder[] newAdders() {
+        final LongAdder[] adders = new LongAdder[Mode.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Starts a batch of entries of one archive. The batch is used by a single thread at a time and has to be closed.
+     */
+    Batch newBatch(final Path sdkZipPath, final ZipFile sdkZipFile) {
+        return new Batch(sdkZipPath, sdkZipFile);
+    }
+
+    /**
+     * Extracts entries of one archive. The archive file channel for stored entries is opened once for the batch and
+     * the inflater is released when the batch is closed.
+     */
+    final class Batch implements Closeable {
+        private final Path sdkZipPath;
+        private final ZipFile sdkZipFile;
+        private FileChannel sdkZipChannel;
+        private Inflater inflater;
+        private final byte[] input = new byte[BUFFER_SIZE];
+        private final byte[] output = new byte[BUFFER_SIZE];
+
+        private Batch(final Path sdkZipPath, final ZipFile sdkZipFile) {
+            this.sdkZipPath = sdkZipPath;
+            this.sdkZipFile = sdkZipFile;
+        }
+
+        /**
+         * Extracts the entry into a file. Data offset of the entry has to be resolved already, see
+         * {@link ZipArchiveEntry#getDataOffset()}.
+         */
+        void extract(final ZipArchiveEntry entry, final Path path) throws IOException {
+            LOGGER.info("Extracting {} as {}", entry.getName(), path);
+            final long start = System.nanoTime();
+            // The file may be a hard link into the local repository, made by a previous run. Writing into it would
+            // overwrite the installed artifact.
+            Files.deleteIfExists(path);
+            final Mode mode;
+            if (entry.getMethod() == ZipEntry.STORED) {
+                mode = Mode.STORED;
+                transferStoredEntry(entry, path);
+            } else if (entry.getMethod() == ZipEntry.DEFLATED) {
+                mode = Mode.DEFLATED;
+                inflateEntry(entry, path);
+            } else {
+                mode = Mode.OTHER;
+                copyEntry(entry, path);
+            }
+            EntryExtractor.this.nanos[mode.ordinal()].add(System.nanoTime() - start);
+            EntryExtractor.this.bytes[mode.ordinal()].add(entry.getSize());
+            EntryExtractor.this.entries[mode.ordinal()].increment();
+        }
+
+        private void transferStoredEntry(final ZipArchiveEntry entry, final Path path) throws IOException {
+            if (this.sdkZipChannel == null) {
+                this.sdkZipChannel = FileChannel.open(this.sdkZipPath, StandardOpenOption.READ);
+            }
+            final long offset = entry.getDataOffset();
+            final long size = entry.getCompressedSize();
+            try (final FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                long transferred = 0;
+                while (transferred < size) {
+                    final long count = this.sdkZipChannel.transferTo(offset + transferred, size - transferred, out);
+                    if (count <= 0) {
+                        throw new EOFException("Unexpected end of " + this.sdkZipPath + " in " + entry.getName());
+                    }
+                    transferred += count;
+                }
+            }
+        }
+
+        private void inflateEntry(final ZipArchiveEntry entry, final Path path) throws IOException {
+            if (this.inflater == null) {
+                this.inflater = new Inflater(true);
+            } else {
+                this.inflater.reset();
+            }
+            final Inflater inflater = this.inflater;
+            try (final InputStream in = this.sdkZipFile.getRawInputStream(entry);
+                 final OutputStream out = Files.newOutputStream(path, StandardOpenOption.WRITE,
+                         StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                boolean dummyByteSupplied = false;
+                while (!inflater.finished()) {
+                    if (inflater.needsInput()) {
+                        final int read = in.read(this.input);
+                        if (read > 0) {
+                            inflater.setInput(this.input, 0, read);
+                        } else if (!dummyByteSupplied) {
+                            // Inflater in nowrap mode may need an extra byte after the end of the data.
+                            dummyByteSupplied = true;
+                            inflater.setInput(new byte[1]);
+                        } else {
+                            throw new EOFException("Unexpected end of compressed data of " + entry.getName());
+                        }
+                    }
+                    final int inflated = inflater.inflate(this.output);
+                    if (inflated > 0) {
+                        out.write(this.output, 0, inflated);
+                    } else if (inflater.needsDictionary()) {
+                        throw new ZipException("Preset dictionary is not supported in " + entry.getName());
+                    }
+                }
+            } catch (final DataFormatException e) {
+                throw new ZipException("Invalid compressed data of " + entry.getName() + ": " + e.getMessage());
+            }
+        }
+
+        private void copyEntry(final ZipArchiveEntry entry, final Path path) throws IOException {
+            final byte[] buffer = this.output;
+            try (final InputStream in = this.sdkZipFile.getInputStream(entry);
+                 final OutputStream out = Files.newOutputStream(path, StandardOpenOption.WRITE,
+                         StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.inflater != null) {
+                this.inflater.end();
+            }
+            if (this.sdkZipChannel != null) {
+                this.sdkZipChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Logs number of entries, bytes and throughput of each extraction mode. Throughput is computed from the time
+     * spent by the worker threads.
+     */
+    void logStatistics() {
+        for (final Mode mode : Mode.values()) {
+            final long modeEntries = this.entries[mode.ordinal()].sum();
+            if (modeEntries == 0) {
+                continue;
+            }
+            final long modeBytes = this.bytes[mode.ordinal()].sum();
+            final long modeNanos = Math.max(1, this.nanos[mode.ordinal()].sum());
+            LOGGER.info("Extracted {} {} entries, {} bytes in {} ms, {} MB/s", modeEntries,
+                    mode.name().toLowerCase(Locale.ROOT), modeBytes, TimeUnit.NANOSECONDS.toMillis(modeNanos),
+                    String.format(Locale.ROOT, "%.1f", modeBytes * 1e9 / modeNanos / (1024 * 1024)));
+        }
+    }
+}
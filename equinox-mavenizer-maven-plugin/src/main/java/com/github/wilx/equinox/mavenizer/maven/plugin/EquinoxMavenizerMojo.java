@@ -1,16 +1,22 @@
 package com.github.wilx.equinox.mavenizer.maven.plugin;
 
+import com.github.wilx.equinox.mavenizer.maven.plugin.PhaseListener.Phase;
 import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.Dependency;
 import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.DependencyType;
 import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.ImportPackage;
 import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.RequireBundle;
-import com.google.common.collect.SetMultimap;
-import com.google.common.collect.TreeMultimap;
-import com.sun.xml.txw2.output.IndentingXMLStreamWriter;
+import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
 import org.apache.maven.execution.MavenSession;
@@ -21,6 +27,9 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.AbstractRepositoryListener;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
@@ -29,61 +38,97 @@ import org.eclipse.aether.deployment.DeployRequest;
 import org.eclipse.aether.deployment.DeploymentException;
 import org.eclipse.aether.installation.InstallRequest;
 import org.eclipse.aether.installation.InstallationException;
+import org.eclipse.aether.metadata.Metadata;
+import org.eclipse.aether.repository.LocalRepositoryManager;
 import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutProvider;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transfer.NoRepositoryLayoutException;
+import org.eclipse.aether.transfer.NoTransporterException;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
 import org.eclipse.aether.util.artifact.SubArtifact;
+import org.eclipse.aether.util.listener.ChainedRepositoryListener;
 import org.eclipse.osgi.framework.util.CaseInsensitiveDictionaryMap;
 import org.eclipse.osgi.internal.framework.EquinoxContainer;
 import org.eclipse.osgi.util.ManifestElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
 import org.jgrapht.alg.TransitiveReduction;
-import org.jgrapht.alg.cycle.HawickJamesSimpleCycles;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.EdgeReversedGraph;
 import org.jgrapht.traverse.BreadthFirstIterator;
 import org.osgi.framework.BundleException;
 import org.osgi.framework.Constants;
+import org.osgi.framework.VersionRange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
-import javax.xml.stream.XMLOutputFactory;
-import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
 @Mojo(name = "equinox-mavenizer", defaultPhase = LifecyclePhase.PACKAGE, threadSafe = true)
 public class EquinoxMavenizerMojo extends AbstractMojo {
     private static final DateTimeFormatter BOM_VERSION_FMT = DateTimeFormatter.ofPattern("uuuuMMdd.HHmmss", Locale.US)
             .withZone(ZoneId.of("UTC"));
-    private static final String XSI_URL = "http://www.w3.org/2001/XMLSchema-instance";
+    /**
+     * Release IDs are used as BOM versions and in BOM file names, so they must not contain path separators or
+     * characters that Maven versions do not use.
+     */
+    private static final Pattern RELEASE_ID_PATTERN = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._+-]*");
+    /**
+     * Number of archive entries extracted by one task. Small enough for the tasks to spread over the threads, large
+     * enough to reuse the archive file channel and inflater of the task.
+     */
+    private static final int EXTRACT_BATCH_SIZE = 16;
     private static final Logger LOGGER = LoggerFactory.getLogger(EquinoxMavenizerMojo.class);
     public static final ManifestElement[] EMPTY_MANIFEST_ELEMENTS = new ManifestElement[0];
 
@@ -91,6 +136,8 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
     private MavenProject project;
 
     private final RepositorySystem repositorySystem;
+    private final RepositoryLayoutProvider repositoryLayoutProvider;
+    private final TransporterProvider transporterProvider;
 
     @Parameter(defaultValue = "${session}", required = true, readonly = true)
     private MavenSession session;
@@ -104,9 +151,24 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
     @Parameter(property = "equinox-mavenizer.groupId", required = true)
     private String groupId;
 
-    @Parameter(property = "equinox-mavenizer.sdkZipFiles", required = true)
+    /**
+     * SDK archives of a single release to mavenize. Exactly one of {@code equinoxSdkZipFiles} and {@code releases} has
+     * to be specified.
+     */
+    @Parameter(property = "equinox-mavenizer.sdkZipFiles")
     private List<File> equinoxSdkZipFiles;
 
+    /**
+     * SDK releases to mavenize together, instead of {@code equinoxSdkZipFiles}. Bundles are identified by their
+     * artifactId and version, and bundle versions shared by the releases are extracted and analyzed only once. Each
+     * release gets its own BOM, with the release ID as its version, and dependencies are resolved within each release.
+     * A bundle version shared by several releases gets its POM dependencies, and their versions, from the first release
+     * containing it, in the order of the releases. A warning is logged when a later release would resolve different
+     * dependencies for it.
+     */
+    @Parameter
+    private List<Release> releases;
+
     @Parameter
     private Set<String> ignoredBsns;
 
@@ -122,14 +184,162 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
     @Parameter(property = "equinox-mavenizer.retryFailedDeploymentCount", defaultValue = "10")
     private int retryFailedDeploymentCount;
 
+    /**
+     * Delay in milliseconds before the first retry of a failed deployment. The delay doubles with each further retry,
+     * up to {@code deployRetryMaxDelay}, and a random jitter of up to a half of it is subtracted.
+     */
+    @Parameter(property = "equinox-mavenizer.deployRetryDelay", defaultValue = "1000")
+    private long deployRetryDelay;
+
+    /**
+     * Maximum delay in milliseconds before a retry of a failed deployment.
+     */
+    @Parameter(property = "equinox-mavenizer.deployRetryMaxDelay", defaultValue = "30000")
+    private long deployRetryMaxDelay;
+
+    /**
+     * Maximum number of deployment retries for the whole run. Negative value means no limit.
+     */
+    @Parameter(property = "equinox-mavenizer.deployRetryBudget", defaultValue = "100")
+    private int deployRetryBudget;
+
+    /**
+     * Number of deployment requests sent to the remote repository concurrently.
+     */
+    @Parameter(property = "equinox-mavenizer.deployThreads", defaultValue = "1")
+    private int deployThreads;
+
+    /**
+     * Number of bundles whose artifacts are deployed together in a single deployment request.
+     */
+    @Parameter(property = "equinox-mavenizer.deployBatchSize", defaultValue = "1")
+    private int deployBatchSize;
+
+    /**
+     * Skip deployment of bundles which the deployment journal of a previous run, in the SDK artifacts directory, records
+     * as already deployed to the same repository with identical content. The BOM is always deployed.
+     */
+    @Parameter(property = "equinox-mavenizer.resume", defaultValue = "false")
+    private boolean resume;
+
+    /**
+     * Before deployment, check which artifacts the remote repository already contains with the same checksum and do not
+     * deploy them again.
+     */
+    @Parameter(property = "equinox-mavenizer.skipExistingRemoteArtifacts", defaultValue = "false")
+    private boolean skipExistingRemoteArtifacts;
+
+    /**
+     * Resolve imported packages taking version ranges into account, to the bundle exporting the highest matching
+     * version. Imports of packages exported by multiple bundles are resolved too, unless they would create a dependency
+     * cycle.
+     */
+    @Parameter(property = "equinox-mavenizer.versionRangeResolution", defaultValue = "false")
+    private boolean versionRangeResolution;
+
+    /**
+     * Maximum number of simple dependency cycles reported when the dependency graph contains cycles.
+     */
+    @Parameter(property = "equinox-mavenizer.maxReportedCycles", defaultValue = "100")
+    private int maxReportedCycles;
+
+    /**
+     * Maximum time in milliseconds spent looking for shortest and simple dependency cycles to report.
+     */
+    @Parameter(property = "equinox-mavenizer.cycleDetectionTimeout", defaultValue = "10000")
+    private long cycleDetectionTimeout;
+
+    /**
+     * Number of worker threads used for extraction and analysis of bundles and for generation of POM files. Zero or
+     * negative value means the number of available processors.
+     */
+    @Parameter(property = "equinox-mavenizer.threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Read bundle manifests directly from the SDK archives and extract only bundles which are not ignored, duplicate
+     * or otherwise filtered out.
+     */
+    @Parameter(property = "equinox-mavenizer.analyzeBeforeExtract", defaultValue = "false")
+    private boolean analyzeBeforeExtract;
+
+    /**
+     * Keep an index of extracted and analyzed SDK archive entries in the SDK artifacts directory and skip
+     * re-extracting and re-analyzing entries which did not change since the previous run.
+     */
+    @Parameter(property = "equinox-mavenizer.incremental", defaultValue = "false")
+    private boolean incremental;
+
+    /**
+     * Do not install artifacts which are already present in the local repository with identical content.
+     */
+    @Parameter(property = "equinox-mavenizer.skipIdenticalInstalls", defaultValue = "false")
+    private boolean skipIdenticalInstalls;
+
+    /**
+     * Number of bundles whose artifacts are installed together in a single installation request. Zero or negative
+     * value means all bundles and the BOM in a single request.
+     */
+    @Parameter(property = "equinox-mavenizer.installBatchSize", defaultValue = "1")
+    private int installBatchSize;
+
+    /**
+     * How extracted JARs get into the local repository, {@code COPY} or {@code LINK}. See {@link InstallStrategy}.
+     */
+    @Parameter(property = "equinox-mavenizer.installStrategy", defaultValue = "COPY")
+    private InstallStrategy installStrategy;
+
+    /**
+     * Record a Java Flight Recorder recording for the duration of the execution into {@code equinox-mavenizer.jfr} in
+     * the build directory. The recording contains events of the extraction, analysis, POM generation, installation and
+     * deployment of the individual bundles.
+     */
+    @Parameter(property = "equinox-mavenizer.flightRecording", defaultValue = "false")
+    private boolean flightRecording;
+
+    /**
+     * Configuration of the flight recording, either name of a configuration of the JDK, like {@code default} or
+     * {@code profile}, or path to a {@code .jfc} file.
+     */
+    @Parameter(property = "equinox-mavenizer.flightRecordingSettings", defaultValue = "default")
+    private String flightRecordingSettings;
+
     private Path sdkArtifactsDirPath;
+    private IncrementalIndex incrementalIndex;
+    private PhaseListener phaseListener = PhaseListener.NONE;
+    private final PhaseReport phaseReport = new PhaseReport();
+    private DeploymentJournal deploymentJournal;
     private int artifactCounter = 0;
-    private Path bomPath;
+    private final List<Artifact> bomArtifacts = new ArrayList<>();
+    private final AtomicInteger deployRetries = new AtomicInteger();
+    private final AtomicLong deployRetryWaitMillis = new AtomicLong();
+    private final AtomicBoolean deployRetryBudgetExhausted = new AtomicBoolean();
+    private final AtomicInteger resumedEntries = new AtomicInteger();
+    private final AtomicInteger remoteSkippedArtifacts = new AtomicInteger();
+    private final AtomicLong remoteSkippedBytes = new AtomicLong();
     private final String bomVersion = BOM_VERSION_FMT.format(Instant.now());
 
     @Inject
-    public EquinoxMavenizerMojo(final RepositorySystem repositorySystem) {
+    public EquinoxMavenizerMojo(final RepositorySystem repositorySystem,
+            final RepositoryLayoutProvider repositoryLayoutProvider, final TransporterProvider transporterProvider) {
         this.repositorySystem = repositorySystem;
+        this.repositoryLayoutProvider = repositoryLayoutProvider;
+        this.transporterProvider = transporterProvider;
+    }
+
+    @VisibleForTesting
+    void setPhaseListener(final PhaseListener phaseListener) {
+        this.phaseListener = phaseListener;
+    }
+
+    private void startPhase(final Phase phase) {
+        this.phaseListener.phaseStarted(phase);
+        this.phaseReport.phaseStarted(phase);
+    }
+
+    private void finishPhase(final Phase phase, final int entries) {
+        this.phaseReport.phaseFinished(phase, entries);
+        this.phaseListener.phaseFinished(phase, entries);
     }
 
     @Override
@@ -137,46 +347,389 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
         if (this.ignoredBsns == null) {
             this.ignoredBsns = Collections.emptySet();
         }
+        final boolean multiRelease = validateSdkSources(this.equinoxSdkZipFiles, this.releases);
         this.sdkArtifactsDirPath = this.buildDir.toPath().resolve("sdkArtifacts");
+        if (this.incremental) {
+            this.incrementalIndex = IncrementalIndex.load(this.sdkArtifactsDirPath.resolve(".incremental-index"));
+        }
+        final Recording recording = startFlightRecording();
+        try {
+            if (multiRelease) {
+                executeReleases();
+            } else {
+                executeSdkZipFiles();
+            }
+        } finally {
+            writePhaseReport();
+            stopFlightRecording(recording);
+        }
+    }
+
+    /**
+     * @return recording started for the duration of the execution, or null if no recording was requested
+     */
+    @Nullable
+    private Recording startFlightRecording() throws MojoExecutionException {
+        if (!this.flightRecording) {
+            return null;
+        }
+        try {
+            final Configuration configuration = this.flightRecordingSettings.endsWith(".jfc")
+                    ? Configuration.create(Path.of(this.flightRecordingSettings))
+                    : Configuration.getConfiguration(this.flightRecordingSettings);
+            final Recording recording = new Recording(configuration);
+            recording.setName("equinox-mavenizer");
+            recording.start();
+            return recording;
+        } catch (final IOException | ParseException | IllegalStateException e) {
+            throw new MojoExecutionException("Failed to start flight recording: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stops the recording and writes it into the build directory. Failure to write the recording does not fail the
+     * build.
+     */
+    private void stopFlightRecording(@Nullable final Recording recording) {
+        if (recording == null) {
+            return;
+        }
+        final Path recordingPath = this.buildDir.toPath().resolve("equinox-mavenizer.jfr");
+        try {
+            recording.stop();
+            Files.createDirectories(this.buildDir.toPath());
+            recording.dump(recordingPath);
+            LOGGER.info("Flight recording written to {}", recordingPath);
+        } catch (final IOException | IllegalStateException e) {
+            LOGGER.warn("Failed to write flight recording: {}", e.getLocalizedMessage());
+            LOGGER.debug("Exception", e);
+        } finally {
+            recording.close();
+        }
+    }
 
+    /**
+     * Mavenizes the configured SDK archives.
+     */
+    private void executeSdkZipFiles() throws MojoExecutionException, MojoFailureException {
         // Map of artifactIds to SdkEntry records.
         final Map<String, SdkEntry> mappedEntries = new TreeMap<>();
         final Map<String, SdkEntry> bsnMap = new TreeMap<>();
-        extractSdkJars(mappedEntries);
+        if (this.analyzeBeforeExtract) {
+            analyzeAndExtractSdkJars(mappedEntries, bsnMap);
+        } else {
+            extractSdkJars(mappedEntries);
 
-        // Analyze metadata for dependencies.
-        analyzeMetadata(mappedEntries, bsnMap);
+            // Analyze metadata for dependencies.
+            startPhase(Phase.ANALYZE);
+            analyzeMetadata(mappedEntries, bsnMap);
+            finishPhase(Phase.ANALYZE, mappedEntries.size());
+        }
+        // The archives are closed and their entries are not needed anymore.
+        mappedEntries.values().forEach(SdkEntry::releaseArchive);
+        saveIncrementalIndex();
 
-        final SetMultimap<String, String> implementedBy = TreeMultimap.create();
-        analyzeDependencies(mappedEntries, bsnMap, implementedBy);
+        startPhase(Phase.DEPENDENCIES);
+        analyzeDependencies(mappedEntries, bsnMap, Collections.emptySet());
+        finishPhase(Phase.DEPENDENCIES, mappedEntries.size());
 
+        startPhase(Phase.CYCLES);
         detectDependencyCycles(mappedEntries);
+        finishPhase(Phase.CYCLES, mappedEntries.size());
 
         // Generate POM files with dependencies.
-        generatePomFiles(mappedEntries);
+        startPhase(Phase.POMS);
+        generatePomFiles(mappedEntries, mappedEntries.values());
+        finishPhase(Phase.POMS, mappedEntries.size());
 
         // Generate BOM POM.
-        generateBom(mappedEntries.values());
+        startPhase(Phase.BOM);
+        generateBom(mappedEntries.values(), this.bomVersion, "bom");
+        finishPhase(Phase.BOM, mappedEntries.size());
 
+        installAndDeploy(mappedEntries);
+    }
+
+    /**
+     * Logs resources used by the phases and writes them into the build directory, as JSON and in OpenMetrics text
+     * format. Failure to write the report does not fail the build.
+     */
+    private void writePhaseReport() {
+        this.phaseReport.log();
+        try {
+            Files.createDirectories(this.buildDir.toPath());
+            this.phaseReport.writeJson(this.buildDir.toPath().resolve("equinox-mavenizer-phases.json"));
+            this.phaseReport.writeOpenMetrics(this.buildDir.toPath().resolve("equinox-mavenizer-phases.txt"));
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to write phase report: {}", e.getLocalizedMessage());
+            LOGGER.debug("Exception", e);
+        }
+    }
+
+    private void installAndDeploy(final Map<String, SdkEntry> mappedEntries)
+            throws MojoExecutionException, MojoFailureException {
         // Install extracted JARs and generated POM files together.
+        startPhase(Phase.INSTALL);
         installArtifacts(mappedEntries);
-        installBom();
+        finishPhase(Phase.INSTALL, mappedEntries.size());
 
         if (this.deploy) {
+            startPhase(Phase.DEPLOY);
             deployArtifacts(mappedEntries);
+            finishPhase(Phase.DEPLOY, mappedEntries.size());
         }
     }
 
-    private static void detectDependencyCycles(Map<String, SdkEntry> mappedEntries) throws MojoFailureException {
-        final var depGraph = buildDependencyGraph(mappedEntries);
-        final var cycleDetector = new HawickJamesSimpleCycles<>(depGraph);
-        final List<List<String>> simpleCycles = cycleDetector.findSimpleCycles();
-        if (! simpleCycles.isEmpty()) {
-            LOGGER.error("There are cycles in the dependency graph!");
-            for (final var cycle : simpleCycles) {
-                LOGGER.error("{}", cycle);
+    /**
+     * Mavenizes all configured releases. Bundle versions are extracted and analyzed once, for all releases, the rest
+     * is done release by release.
+     */
+    private void executeReleases() throws MojoExecutionException, MojoFailureException {
+        // Map of artifactId:version keys to SdkEntry records shared by the releases, and map of artifactIds to the
+        // shared SdkEntry records for each release.
+        final Map<String, SdkEntry> bundleVersions = new TreeMap<>();
+        final List<Map<String, SdkEntry>> releaseEntries = new ArrayList<>(this.releases.size());
+        final List<ZipFile> sdkZipFiles = new ArrayList<>();
+        try {
+            startPhase(Phase.SCAN);
+            scanReleases(bundleVersions, releaseEntries, sdkZipFiles);
+            finishPhase(Phase.SCAN, bundleVersions.size());
+            if (this.analyzeBeforeExtract) {
+                startPhase(Phase.ANALYZE);
+                analyzeEntriesMetadata(bundleVersions);
+                finishPhase(Phase.ANALYZE, bundleVersions.size());
+            }
+            startPhase(Phase.EXTRACT);
+            try (final WorkerPool workerPool = new WorkerPool("extract", this.threads)) {
+                extractEntries(bundleVersions, workerPool);
+            }
+            finishPhase(Phase.EXTRACT, bundleVersions.size());
+            if (!this.analyzeBeforeExtract) {
+                startPhase(Phase.ANALYZE);
+                analyzeEntriesMetadata(bundleVersions);
+                finishPhase(Phase.ANALYZE, bundleVersions.size());
+            }
+        } catch (final IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            sdkZipFiles.forEach(IOUtils::closeQuietly);
+        }
+        // The archives are closed and their entries are not needed anymore.
+        bundleVersions.values().forEach(SdkEntry::releaseArchive);
+        saveIncrementalIndex();
+
+        final Set<SdkEntry> analyzedEntries = new HashSet<>(bundleVersions.values());
+        final Set<SdkEntry> resolvedEntries = new HashSet<>();
+        final Map<SdkEntry, ResolvedDependencies> resolvedDependencies = new HashMap<>();
+        final Map<String, SdkEntry> mavenizedEntries = new TreeMap<>();
+        for (int i = 0; i < this.releases.size(); i++) {
+            final Release release = this.releases.get(i);
+            final Map<String, SdkEntry> mappedEntries = releaseEntries.get(i);
+            LOGGER.info("Resolving dependencies of release {}", release.getId());
+            mappedEntries.values().removeIf(sdkEntry -> !analyzedEntries.contains(sdkEntry));
+            final Map<String, SdkEntry> bsnMap = new TreeMap<>();
+            registerBsns(mappedEntries, bsnMap);
+
+            startPhase(Phase.DEPENDENCIES);
+            analyzeDependencies(mappedEntries, bsnMap, resolvedEntries);
+            warnAboutDifferentDependencies(release, mappedEntries, bsnMap, resolvedDependencies);
+            finishPhase(Phase.DEPENDENCIES, mappedEntries.size());
+
+            startPhase(Phase.CYCLES);
+            detectDependencyCycles(mappedEntries);
+            finishPhase(Phase.CYCLES, mappedEntries.size());
+
+            // Generate POM files of bundle versions which are new in this release.
+            final List<SdkEntry> newEntries = mappedEntries.values().stream()
+                    .filter(sdkEntry -> !resolvedEntries.contains(sdkEntry))
+                    .toList();
+            startPhase(Phase.POMS);
+            generatePomFiles(mappedEntries, newEntries);
+            finishPhase(Phase.POMS, newEntries.size());
+            resolvedEntries.addAll(newEntries);
+            for (final SdkEntry sdkEntry : newEntries) {
+                mavenizedEntries.put(bundleVersionKey(sdkEntry), sdkEntry);
+                resolvedDependencies.put(sdkEntry, new ResolvedDependencies(release.getId(),
+                        dependencyKeys(sdkEntry, mappedEntries)));
+            }
+
+            startPhase(Phase.BOM);
+            generateBom(mappedEntries.values(), release.getId(), "bom-" + release.getId());
+            finishPhase(Phase.BOM, mappedEntries.size());
+        }
+
+        installAndDeploy(mavenizedEntries);
+    }
+
+    /**
+     * Dependencies in the POM of a bundle version shared by several releases.
+     *
+     * @param releaseId release the dependencies were resolved in
+     * @param dependencies keys of the dependencies, see {@link #dependencyKeys(SdkEntry, Map)}
+     */
+    @VisibleForTesting
+    record ResolvedDependencies(String releaseId, Set<String> dependencies) {
+    }
+
+    /**
+     * @return artifactId, version in the release and optionality of each dependency of the entry
+     */
+    @VisibleForTesting
+    static Set<String> dependencyKeys(final SdkEntry sdkEntry, final Map<String, SdkEntry> mappedEntries) {
+        final Set<String> keys = new TreeSet<>();
+        for (final Dependency dep : sdkEntry.getDependencies()) {
+            final SdkEntry depSdkEntry = mappedEntries.get(dep.artifactId());
+            keys.add(dep.artifactId() + ':' + (depSdkEntry != null ? depSdkEntry.getVersion() : "?")
+                    + (dep.dependencyType() == DependencyType.OPTIONAL ? " (optional)" : ""));
+        }
+        return keys;
+    }
+
+    /**
+     * Resolves dependencies of bundle versions shared with earlier releases as if this release was the only one, and
+     * warns about those which would get different dependencies than the ones resolved in the earlier release. The
+     * dependencies of all entries are restored afterwards.
+     *
+     * @param resolvedDependencies dependencies of bundle versions resolved in earlier releases
+     * @return number of shared bundle versions which would get different dependencies
+     */
+    @VisibleForTesting
+    int warnAboutDifferentDependencies(final Release release, final Map<String, SdkEntry> mappedEntries,
+            final Map<String, SdkEntry> bsnMap, final Map<SdkEntry, ResolvedDependencies> resolvedDependencies)
+            throws MojoExecutionException, MojoFailureException {
+        if (mappedEntries.values().stream().noneMatch(resolvedDependencies::containsKey)) {
+            return 0;
+        }
+        final Map<SdkEntry, List<Dependency>> keptDependencies = new HashMap<>();
+        for (final SdkEntry sdkEntry : mappedEntries.values()) {
+            keptDependencies.put(sdkEntry, new ArrayList<>(sdkEntry.getDependencies()));
+            sdkEntry.setDependencies(List.of());
+        }
+        try {
+            analyzeDependencies(mappedEntries, bsnMap, Set.of());
+            int differing = 0;
+            for (final SdkEntry sdkEntry : mappedEntries.values()) {
+                final ResolvedDependencies resolved = resolvedDependencies.get(sdkEntry);
+                if (resolved == null) {
+                    continue;
+                }
+                final Set<String> releaseDependencies = dependencyKeys(sdkEntry, mappedEntries);
+                if (!releaseDependencies.equals(resolved.dependencies())) {
+                    differing++;
+                    LOGGER.warn("{} {} keeps dependencies {} of release {}, release {} would resolve {}",
+                            sdkEntry.getArtifactId(), sdkEntry.getVersion(), resolved.dependencies(),
+                            resolved.releaseId(), release.getId(), releaseDependencies);
+                }
             }
-            throw new MojoFailureException("There are cycles in the dependency graph!");
+            if (differing != 0) {
+                LOGGER.warn("{} bundle versions of release {} keep dependencies of an earlier release", differing,
+                        release.getId());
+            }
+            return differing;
+        } finally {
+            keptDependencies.forEach(SdkEntry::setDependencies);
+        }
+    }
+
+    /**
+     * Checks that exactly one of the SDK archives and the releases is specified, and that the releases are valid.
+     *
+     * @return true if the releases are specified
+     */
+    @VisibleForTesting
+    static boolean validateSdkSources(final List<File> equinoxSdkZipFiles, final List<Release> releases)
+            throws MojoFailureException {
+        final boolean multiRelease = releases != null && !releases.isEmpty();
+        final boolean singleRelease = equinoxSdkZipFiles != null && !equinoxSdkZipFiles.isEmpty();
+        if (multiRelease && singleRelease) {
+            throw new MojoFailureException("Only one of equinoxSdkZipFiles and releases can be specified, not both");
+        }
+        if (!multiRelease && !singleRelease) {
+            throw new MojoFailureException("Either equinoxSdkZipFiles or releases has to be specified");
+        }
+        if (multiRelease) {
+            validateReleases(releases);
+        }
+        return multiRelease;
+    }
+
+    @VisibleForTesting
+    static void validateReleases(final List<Release> releases) throws MojoFailureException {
+        final Set<String> releaseIds = new HashSet<>();
+        for (final Release release : releases) {
+            if (StringUtils.isBlank(release.getId())) {
+                throw new MojoFailureException("Release ID must be specified");
+            }
+            if (!RELEASE_ID_PATTERN.matcher(release.getId()).matches()) {
+                throw new MojoFailureException("Release ID " + release.getId() + " is not a valid version, it may"
+                        + " contain only letters, digits, '.', '_', '+' and '-' and must start with a letter or digit");
+            }
+            if (!releaseIds.add(release.getId())) {
+                throw new MojoFailureException("Duplicate release ID " + release.getId());
+            }
+            if (release.getEquinoxSdkZipFiles() == null || release.getEquinoxSdkZipFiles().isEmpty()) {
+                throw new MojoFailureException("Release " + release.getId() + " does not have any SDK archives");
+            }
+        }
+    }
+
+    /**
+     * Reads all SDK archives of all releases, each archive once, and maps the entries of each release. Entries with the
+     * same artifactId and version are shared by all releases containing them.
+     *
+     * @param bundleVersions collects the shared entries, by {@link #bundleVersionKey(SdkEntry)}
+     * @param releaseEntries collects the entries of each release, by artifactId
+     * @param sdkZipFiles    collects the opened archives, the caller has to close them
+     */
+    private void scanReleases(final Map<String, SdkEntry> bundleVersions,
+            final List<Map<String, SdkEntry>> releaseEntries, final List<ZipFile> sdkZipFiles)
+            throws MojoExecutionException, MojoFailureException {
+        final List<File> archives = this.releases.stream()
+                .flatMap(release -> release.getEquinoxSdkZipFiles().stream())
+                .distinct()
+                .toList();
+        final List<Map<String, SdkEntry>> archiveMaps = scanSdkArchives(archives, sdkZipFiles);
+
+        for (final Release release : this.releases) {
+            LOGGER.info("Mapping bundles of release {}", release.getId());
+            final List<Map<String, SdkEntry>> releaseArchiveMaps = release.getEquinoxSdkZipFiles().stream()
+                    .map(file -> archiveMaps.get(archives.indexOf(file)))
+                    .toList();
+            final Map<String, SdkEntry> mappedEntries = new TreeMap<>();
+            mergeSdkArchives(mappedEntries, releaseArchiveMaps);
+            // The same bundle version can come from different archives in different releases.
+            mappedEntries.replaceAll((artifactId, sdkEntry) -> {
+                final SdkEntry sharedEntry = bundleVersions.putIfAbsent(bundleVersionKey(sdkEntry), sdkEntry);
+                return sharedEntry != null ? sharedEntry : sdkEntry;
+            });
+            releaseEntries.add(mappedEntries);
+        }
+        LOGGER.info("Mapped {} bundle versions of {} releases", bundleVersions.size(), this.releases.size());
+    }
+
+    private static String bundleVersionKey(final SdkEntry sdkEntry) {
+        return sdkEntry.getArtifactId() + ':' + sdkEntry.getVersion();
+    }
+
+    private void saveIncrementalIndex() throws MojoExecutionException {
+        if (this.incrementalIndex != null) {
+            try {
+                this.incrementalIndex.save();
+            } catch (final IOException e) {
+                throw new MojoExecutionException(e.getMessage(), e);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void detectDependencyCycles(Map<String, SdkEntry> mappedEntries) throws MojoFailureException {
+        final var depGraph = buildDependencyGraph(mappedEntries);
+        final var cycleDetector = new DependencyCycleDetector(depGraph, this.maxReportedCycles,
+                this.cycleDetectionTimeout);
+        final DependencyCycleDetector.Report report = cycleDetector.detect();
+        if (report.hasCycles()) {
+            throw new MojoFailureException("There are cycles in the dependency graph! " + report.components().size()
+                    + " strongly connected components contain cycles.");
         }
     }
 
@@ -190,7 +743,8 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
         for (final SdkEntry sdkEntry : mappedEntries.values()) {
             final String sdkEntryArtifactId = sdkEntry.getArtifactId();
             for (final Dependency dep : sdkEntry.getDependencies()) {
-                baseDepGraph.addEdge(sdkEntryArtifactId, dep.artifactId());
+                // A bundle version shared by several releases can depend on a bundle which is not in this release.
+                Graphs.addEdgeWithVertices(baseDepGraph, sdkEntryArtifactId, dep.artifactId());
             }
         }
         return baseDepGraph;
@@ -205,54 +759,242 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
         }
 
         final RemoteRepository remoteRepository = selectRemoteRepository();
+        try (final DeploymentJournal journal = DeploymentJournal.open(
+                this.sdkArtifactsDirPath.resolve(".deployment-journal"), remoteRepository.getUrl(), this.resume)) {
+            this.deploymentJournal = journal;
+            deployArtifacts(mappedEntries, remoteRepository);
+        } catch (final IOException | UncheckedIOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            this.deploymentJournal = null;
+        }
+    }
 
-        Exception deployFailure = null;
-        for (final SdkEntry sdkEntry : mappedEntries.values()) {
-            final DeployRequest deployRequest = new DeployRequest();
-            deployRequest.setRepository(remoteRepository);
-            final Artifact mainArtifact = createMainArtifact(sdkEntry);
-            deployRequest.addArtifact(mainArtifact);
+    private void deployArtifacts(final Map<String, SdkEntry> mappedEntries, final RemoteRepository remoteRepository)
+            throws MojoExecutionException, MojoFailureException {
+        final List<SdkEntry> sdkEntries = new ArrayList<>(mappedEntries.values());
+        final int batchSize = Math.max(1, this.deployBatchSize);
+        final List<DeploymentException> deployFailures;
+        try (final WorkerPool workerPool = new WorkerPool("deploy", Math.max(1, this.deployThreads))) {
+            // Leave out artifacts which were deployed already.
+            final List<List<Artifact>> pendingArtifacts = collectPendingArtifacts(workerPool, remoteRepository,
+                    sdkEntries, batchSize);
+
+            // Deploy batches of entries concurrently. Failures are collected and the rest of the entries is still
+            // deployed.
+            final List<Callable<DeploymentException>> deployTasks = new ArrayList<>(
+                    pendingArtifacts.size() / batchSize + 1);
+            for (final List<List<Artifact>> batch : Lists.partition(pendingArtifacts, batchSize)) {
+                deployTasks.add(() -> deployBatch(remoteRepository, batch));
+            }
+            deployFailures = workerPool.runAll(deployTasks);
+        }
+        Exception deployFailure = deployFailures.stream()
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(null);
+
+        // The BOMs go last, after all the artifacts they reference.
+        {
+            final DeployRequest deployRequest = newDeployRequest(remoteRepository, this.bomArtifacts);
+            final DeploymentException e = deployOrSignalFailure(deployRequest);
+            if (deployFailure == null) {
+                deployFailure = e;
+            }
+        }
+
+        LOGGER.info("Deployment was retried {} times, waiting {} ms before the retries in total",
+                this.deployRetries.get(), this.deployRetryWaitMillis.get());
+
+        if (deployFailure != null) {
+            LOGGER.error("First deployment failure was: {}", deployFailure.getLocalizedMessage());
+            throw new MojoExecutionException("First deployment failure", deployFailure);
+        }
+    }
+
+    private static DeployRequest newDeployRequest(final RemoteRepository remoteRepository,
+            final Collection<Artifact> artifacts) {
+        final DeployRequest deployRequest = new DeployRequest();
+        deployRequest.setRepository(remoteRepository);
+        deployRequest.setArtifacts(artifacts);
+        return deployRequest;
+    }
 
-            final Path sourcesPath = sdkEntry.getSourcesPath();
-            if (sourcesPath != null) {
-                final SubArtifact sourcesArtifact = createSourceSubartifact(mainArtifact, sourcesPath);
-                deployRequest.addArtifact(sourcesArtifact);
+    /**
+     * Finds out, concurrently in batches of entries, which artifacts of the entries need to be deployed. When resuming,
+     * entries recorded in the deployment journal are left out. When skipping existing remote artifacts, artifacts which
+     * the remote repository already contains with the same checksum are left out.
+     *
+     * @return artifacts of each entry which need to be deployed; entries with nothing to deploy are left out
+     */
+    private List<List<Artifact>> collectPendingArtifacts(final WorkerPool workerPool,
+            final RemoteRepository remoteRepository, final List<SdkEntry> sdkEntries, final int batchSize)
+            throws MojoExecutionException, MojoFailureException {
+        final List<List<Artifact>> pendingArtifacts = new ArrayList<>(sdkEntries.size());
+        try (final RemoteArtifactChecker remoteArtifactChecker = this.skipExistingRemoteArtifacts
+                ? new RemoteArtifactChecker(this.repositoryLayoutProvider, this.transporterProvider,
+                        this.session.getRepositorySession(), remoteRepository)
+                : null) {
+            final List<Callable<List<List<Artifact>>>> tasks = new ArrayList<>(sdkEntries.size() / batchSize + 1);
+            for (final List<SdkEntry> batch : Lists.partition(sdkEntries, batchSize)) {
+                tasks.add(() -> {
+                    final List<List<Artifact>> batchArtifacts = new ArrayList<>(batch.size());
+                    for (final SdkEntry sdkEntry : batch) {
+                        batchArtifacts.add(pendingArtifacts(remoteArtifactChecker, sdkEntry));
+                    }
+                    return batchArtifacts;
+                });
+            }
+            for (final List<List<Artifact>> batchArtifacts : workerPool.runAll(tasks)) {
+                batchArtifacts.stream()
+                    .filter(artifacts -> !artifacts.isEmpty())
+                    .forEach(pendingArtifacts::add);
             }
+        } catch (final NoRepositoryLayoutException | NoTransporterException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+
+        if (this.resume) {
+            LOGGER.info("Skipped deployment of {} bundles already deployed according to the journal",
+                    this.resumedEntries.get());
+        }
+        if (this.skipExistingRemoteArtifacts) {
+            LOGGER.info("Skipped deployment of {} artifacts ({} bytes) already present in {}",
+                    this.remoteSkippedArtifacts.get(), this.remoteSkippedBytes.get(), remoteRepository.getUrl());
+        }
+        return pendingArtifacts;
+    }
+
+    private List<Artifact> pendingArtifacts(final RemoteArtifactChecker remoteArtifactChecker,
+            final SdkEntry sdkEntry) {
+        final List<Artifact> artifacts = createEntryArtifacts(sdkEntry);
+        if (this.resume && this.deploymentJournal.isDeployed(artifacts)) {
+            LOGGER.debug("Skipping deployment of {} already deployed according to the journal",
+                    sdkEntry.getArtifactId());
+            this.resumedEntries.incrementAndGet();
+            return List.of();
+        }
+        if (remoteArtifactChecker == null) {
+            return artifacts;
+        }
 
-            final Path pomPath = sdkEntry.getPomFile();
-            if (pomPath != null) {
-                final SubArtifact pomArtifact = createPomSubartifact(mainArtifact, pomPath);
-                deployRequest.addArtifact(pomArtifact);
+        final List<Artifact> pending = new ArrayList<>(artifacts.size());
+        final List<Artifact> existing = new ArrayList<>(artifacts.size());
+        for (final Artifact artifact : artifacts) {
+            if (remoteArtifactChecker.isDeployedIdentical(artifact)) {
+                LOGGER.debug("Skipping deployment of {} already present in the remote repository", artifact);
+                this.remoteSkippedArtifacts.incrementAndGet();
+                this.remoteSkippedBytes.addAndGet(artifact.getFile().length());
+                existing.add(artifact);
+            } else {
+                pending.add(artifact);
             }
+        }
+        if (!existing.isEmpty()) {
+            this.deploymentJournal.recordDeployed(existing);
+        }
+        return pending;
+    }
 
-            try {
-                deployOne(deployRequest);
-            } catch (final DeploymentException e) {
-                if (deployFailure == null) {
-                    deployFailure = e;
-                }
-                signalFailure(e, deployRequest);
+    /**
+     * Deploys artifacts of a batch of entries in a single request, attempted once. If that fails, artifacts uploaded by
+     * the request are recorded in the deployment journal and the rest is deployed entry by entry with retries, so that
+     * only the failing entries are retried and the failed batch attempt does not draw on the deployment retry budget.
+     * Entries uploaded completely by the batch request only get their metadata updated. Successfully deployed artifacts
+     * are recorded in the deployment journal.
+     *
+     * @param batch artifacts of each entry of the batch
+     * @return first failure of the deployment, null if it succeeded
+     */
+    private DeploymentException deployBatch(final RemoteRepository remoteRepository,
+            final List<List<Artifact>> batch) {
+        final List<Artifact> artifacts = new ArrayList<>(batch.size() * 3);
+        batch.forEach(artifacts::addAll);
+        final DeployRequest batchRequest = newDeployRequest(remoteRepository, artifacts);
+        if (batch.size() == 1) {
+            return deployOrSignalFailure(batchRequest);
+        }
+
+        final Set<Artifact> notUploadedArtifacts;
+        try {
+            deployOne(batchRequest, 1);
+            this.deploymentJournal.recordDeployed(artifacts);
+            return null;
+        } catch (final DeploymentException e) {
+            LOGGER.warn("Failed to deploy batch of {} bundles, deploying the rest of them one by one: {}",
+                    batch.size(), e.getLocalizedMessage());
+            LOGGER.debug("Exception", e);
+            notUploadedArtifacts = new HashSet<>(e instanceof IncompleteDeploymentException ide
+                    ? ide.getNotUploadedArtifacts()
+                    : artifacts);
+        }
+
+        final List<Artifact> uploadedArtifacts = artifacts.stream()
+                .filter(artifact -> !notUploadedArtifacts.contains(artifact))
+                .toList();
+        if (!uploadedArtifacts.isEmpty()) {
+            this.deploymentJournal.recordDeployed(uploadedArtifacts);
+        }
+
+        DeploymentException deployFailure = null;
+        final List<Artifact> completeEntriesArtifacts = new ArrayList<>();
+        for (final List<Artifact> entryArtifacts : batch) {
+            final List<Artifact> remainingArtifacts = entryArtifacts.stream()
+                    .filter(notUploadedArtifacts::contains)
+                    .toList();
+            if (remainingArtifacts.isEmpty()) {
+                completeEntriesArtifacts.addAll(entryArtifacts);
+                continue;
+            }
+            final DeploymentException e = deployOrSignalFailure(newDeployRequest(remoteRepository,
+                    remainingArtifacts));
+            if (deployFailure == null) {
+                deployFailure = e;
             }
         }
 
-        {
-            final DeployRequest deployRequest = new DeployRequest();
-            deployRequest.setRepository(remoteRepository);
-            final Artifact bomArtifact = createBomArtifact();
-            deployRequest.addArtifact(bomArtifact);
-            try {
-                deployOne(deployRequest);
-            } catch (final DeploymentException e) {
-                if (deployFailure == null) {
-                    deployFailure = e;
-                }
-                signalFailure(e, deployRequest);
+        if (!completeEntriesArtifacts.isEmpty()) {
+            final DeployRequest metadataRequest = newDeployRequest(remoteRepository, List.of());
+            metadataRequest.setMetadata(uploadedArtifactsMetadata(List.of(), completeEntriesArtifacts, List.of()));
+            final DeploymentException e = deployOrSignalFailure(metadataRequest);
+            if (deployFailure == null) {
+                deployFailure = e;
             }
         }
+        return deployFailure;
+    }
 
-        if (deployFailure != null) {
-            LOGGER.error("First deployment failure was: {}", deployFailure.getLocalizedMessage());
-            throw new MojoExecutionException("First deployment failure", deployFailure);
+    /**
+     * Failure of a deployment which tells which artifacts of the request were not uploaded. The other artifacts were
+     * uploaded, but metadata were not updated for them.
+     */
+    private static final class IncompleteDeploymentException extends DeploymentException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Collection<Artifact> notUploadedArtifacts;
+
+        IncompleteDeploymentException(final DeploymentException cause,
+                final Collection<Artifact> notUploadedArtifacts) {
+            super(cause.getMessage(), cause);
+            this.notUploadedArtifacts = notUploadedArtifacts;
+        }
+
+        Collection<Artifact> getNotUploadedArtifacts() {
+            return this.notUploadedArtifacts;
+        }
+    }
+
+    /**
+     * @return failure of the deployment, null if it succeeded
+     */
+    private DeploymentException deployOrSignalFailure(final DeployRequest deployRequest) {
+        try {
+            deployOne(deployRequest, Math.max(1, Math.min(10, this.retryFailedDeploymentCount)));
+            this.deploymentJournal.recordDeployed(deployRequest.getArtifacts());
+            return null;
+        } catch (final DeploymentException e) {
+            signalFailure(e, deployRequest);
+            return e;
         }
     }
 
@@ -318,316 +1060,1071 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
         return result;
     }
 
-    private void deployOne(final DeployRequest deployRequest) throws DeploymentException {
-        final int retryFailedDeploymentCounter = Math.max(1, Math.min(10, this.retryFailedDeploymentCount));
+    /**
+     * Deploys the request, retrying failures with only the artifacts which were not uploaded yet.
+     *
+     * @param maxAttempts number of attempts, retries are taken from the deployment retry budget
+     * @throws IncompleteDeploymentException with the artifacts which were not uploaded, if the deployment failed
+     */
+    private void deployOne(final DeployRequest deployRequest, final int maxAttempts) throws DeploymentException {
+        final MavenizerEvents.Deploy event = new MavenizerEvents.Deploy();
+        event.begin();
         DeploymentException exception = null;
-        for (int count = 0; count < retryFailedDeploymentCounter; count++) {
+        DeployRequest request = deployRequest;
+        final Set<String> uploadedArtifacts = ConcurrentHashMap.newKeySet();
+        final RepositorySystemSession deploySession = newUploadTrackingSession(uploadedArtifacts);
+        int attempts = 0;
+        for (int count = 0; count < maxAttempts; count++) {
             try {
                 if (count > 0) {
-                    LOGGER.info("Retrying deployment attempt {} of {}", count + 1, retryFailedDeploymentCounter);
+                    if (!acquireDeployRetry()) {
+                        if (this.deployRetryBudgetExhausted.compareAndSet(false, true)) {
+                            LOGGER.warn("Deployment retry budget of {} retries is exhausted, failed deployments will not"
+                                    + " be retried any more", this.deployRetryBudget);
+                        }
+                        break;
+                    }
+                    final long delay = deployRetryDelay(count);
+                    LOGGER.info("Retrying deployment attempt {} of {} of {} artifacts in {} ms", count + 1,
+                            maxAttempts, request.getArtifacts().size(), delay);
+                    Thread.sleep(delay);
+                    this.deployRetryWaitMillis.addAndGet(delay);
                 }
 
-                this.repositorySystem.deploy(this.session.getRepositorySession(), deployRequest);
+                attempts++;
+                this.repositorySystem.deploy(deploySession, request);
                 exception = null;
                 break;
             } catch (final DeploymentException e) {
-                if (count + 1 < retryFailedDeploymentCounter) {
+                if (count + 1 < maxAttempts) {
                     LOGGER.warn("Encountered issue during deployment: {}", e.getLocalizedMessage());
                     LOGGER.debug("Exception", e);
                 }
                 if (exception == null) {
                     exception = e;
                 }
+                // Each attempt gets new metadata, the resolver updates metadata of the request while deploying it.
+                request = remainingDeployRequest(deployRequest, uploadedArtifacts);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (exception == null) {
+                    exception = new DeploymentException(e.getMessage(), e);
+                }
+                break;
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.artifactIds = artifactIds(deployRequest.getArtifacts());
+            event.artifacts = deployRequest.getArtifacts().size();
+            event.bytes = artifactBytes(deployRequest.getArtifacts());
+            event.attempts = attempts;
+            event.succeeded = exception == null;
+            event.commit();
+        }
         if (exception != null) {
-            throw exception;
+            throw new IncompleteDeploymentException(exception, request.getArtifacts());
+        }
+    }
+
+    /**
+     * @param uploadedArtifacts collects base IDs of artifacts successfully uploaded within the session
+     * @return session which reports to the same listener as the Maven session
+     */
+    private RepositorySystemSession newUploadTrackingSession(final Set<String> uploadedArtifacts) {
+        final RepositorySystemSession repositorySession = this.session.getRepositorySession();
+        final DefaultRepositorySystemSession trackingSession = new DefaultRepositorySystemSession(repositorySession);
+        trackingSession.setRepositoryListener(ChainedRepositoryListener.newInstance(
+                repositorySession.getRepositoryListener(), new AbstractRepositoryListener() {
+                    @Override
+                    public void artifactDeployed(final RepositoryEvent event) {
+                        if (event.getException() == null) {
+                            uploadedArtifacts.add(ArtifactIdUtils.toBaseId(event.getArtifact()));
+                        }
+                    }
+                }));
+        return trackingSession;
+    }
+
+    /**
+     * @return distinct artifactIds of the artifacts, separated by commas
+     */
+    private static String artifactIds(final Collection<Artifact> artifacts) {
+        return artifacts.stream()
+                .map(Artifact::getArtifactId)
+                .distinct()
+                .collect(Collectors.joining(","));
+    }
+
+    private static long artifactBytes(final Collection<Artifact> artifacts) {
+        return artifacts.stream()
+                .mapToLong(artifact -> artifact.getFile().length())
+                .sum();
+    }
+
+    private boolean acquireDeployRetry() {
+        final int retries = this.deployRetries.incrementAndGet();
+        if (this.deployRetryBudget >= 0 && retries > this.deployRetryBudget) {
+            this.deployRetries.decrementAndGet();
+            return false;
         }
+        return true;
+    }
+
+    /**
+     * @param retry retry number, starting with 1
+     * @return exponentially growing delay with a random jitter
+     */
+    private long deployRetryDelay(final int retry) {
+        final long maxDelay = Math.max(0, this.deployRetryMaxDelay);
+        final long delay = Math.min(maxDelay, Math.max(0, this.deployRetryDelay) << Math.min(retry - 1, 30));
+        return delay - ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * The resolver uploads all artifacts of a request before any metadata and fails if any upload failed. Other
+     * artifacts were uploaded, but {@code maven-metadata.xml} was not updated for any of them. The returned request
+     * resends only the artifacts which were not uploaded. Uploaded artifacts are not uploaded again, release
+     * repositories would reject that. Instead, the request carries {@link VersionMetadata} for each of them, which the
+     * resolver merges into the remote metadata. {@link VersionMetadata} of the request are replaced by copies which were
+     * not merged yet.
+     *
+     * @param uploadedArtifacts base IDs of artifacts uploaded so far
+     * @return request with artifacts which need to be deployed again
+     */
+    @VisibleForTesting
+    static DeployRequest remainingDeployRequest(final DeployRequest request, final Set<String> uploadedArtifacts) {
+        final List<Artifact> uploaded = new ArrayList<>(request.getArtifacts().size());
+        final List<Artifact> notUploaded = new ArrayList<>(request.getArtifacts().size());
+        for (final Artifact artifact : request.getArtifacts()) {
+            if (uploadedArtifacts.contains(ArtifactIdUtils.toBaseId(artifact))) {
+                uploaded.add(artifact);
+            } else {
+                notUploaded.add(artifact);
+            }
+        }
+        if (uploaded.isEmpty() && request.getMetadata().isEmpty()) {
+            return request;
+        }
+
+        final DeployRequest remainingRequest = new DeployRequest();
+        remainingRequest.setRepository(request.getRepository());
+        remainingRequest.setArtifacts(notUploaded);
+        remainingRequest.setMetadata(uploadedArtifactsMetadata(request.getMetadata(), uploaded, notUploaded));
+        remainingRequest.setTrace(request.getTrace());
+        return remainingRequest;
+    }
+
+    /**
+     * @return copies of the metadata plus {@link VersionMetadata} of each version of uploaded artifacts; versions which
+     * have failed artifacts are left out, metadata for them is generated once the failed artifacts are deployed
+     */
+    private static List<Metadata> uploadedArtifactsMetadata(final Collection<Metadata> metadata,
+            final List<Artifact> uploadedArtifacts, final List<Artifact> failedArtifacts) {
+        final Set<String> versionIds = new HashSet<>();
+        failedArtifacts.forEach(a -> versionIds.add(versionId(a.getGroupId(), a.getArtifactId(), a.getBaseVersion())));
+        final List<Metadata> result = new ArrayList<>(metadata.size() + uploadedArtifacts.size());
+        for (final Metadata m : metadata) {
+            if (m instanceof VersionMetadata vm) {
+                versionIds.add(versionId(vm.getGroupId(), vm.getArtifactId(), vm.getDeployedVersion()));
+                result.add(vm.copy());
+            } else {
+                result.add(m);
+            }
+        }
+        for (final Artifact a : uploadedArtifacts) {
+            if (versionIds.add(versionId(a.getGroupId(), a.getArtifactId(), a.getBaseVersion()))) {
+                result.add(new VersionMetadata(a));
+            }
+        }
+        return result;
+    }
+
+    private static String versionId(final String groupId, final String artifactId, final String version) {
+        return groupId + ':' + artifactId + ':' + version;
+    }
+
+    private static boolean isPom(final Artifact artifact) {
+        return "pom".equals(artifact.getExtension()) && artifact.getClassifier().isEmpty();
     }
 
     private void installArtifacts(final Map<String, SdkEntry> mappedEntries) throws MojoExecutionException {
+        final RepositorySystemSession repositorySystemSession = this.session.getRepositorySession();
+        final int batchSize = this.installBatchSize > 0 ? this.installBatchSize : Integer.MAX_VALUE;
+
+        // Collect artifacts into installation requests.
+        final long collectStart = System.nanoTime();
+        final List<InstallRequest> installRequests = new ArrayList<>();
+        InstallRequest installRequest = new InstallRequest();
+        int entriesInRequest = 0;
+        int skippedArtifacts = 0;
+        long skippedBytes = 0;
+        int linkedArtifacts = 0;
+        long linkedBytes = 0;
+        boolean linking = this.installStrategy == InstallStrategy.LINK;
         for (final SdkEntry sdkEntry : mappedEntries.values()) {
-            installArtifact(sdkEntry);
+            for (final Artifact artifact : createEntryArtifacts(sdkEntry)) {
+                if (this.skipIdenticalInstalls && isInstalledIdentical(repositorySystemSession, artifact)) {
+                    LOGGER.debug("Skipping installation of identical {}", artifact);
+                    skippedArtifacts++;
+                    skippedBytes += artifact.getFile().length();
+                    continue;
+                }
+
+                if (linking && !isPom(artifact)) {
+                    if (linkIntoLocalRepository(repositorySystemSession, artifact)) {
+                        linkedArtifacts++;
+                        linkedBytes += artifact.getFile().length();
+                    } else {
+                        // The rest would most likely fail the same way.
+                        linking = false;
+                    }
+                }
+                installRequest.addArtifact(artifact);
+            }
+            if (++entriesInRequest == batchSize) {
+                installRequests.add(installRequest);
+                installRequest = new InstallRequest();
+                entriesInRequest = 0;
+            }
         }
-    }
+        this.bomArtifacts.forEach(installRequest::addArtifact);
+        installRequests.add(installRequest);
+        final long collectNanos = System.nanoTime() - collectStart;
+
+        // Install.
+        final long installStart = System.nanoTime();
+        int installedArtifacts = 0;
+        int sentRequests = 0;
+        for (final InstallRequest request : installRequests) {
+            if (request.getArtifacts().isEmpty()) {
+                continue;
+            }
 
-    private void installBom() throws MojoExecutionException {
-        if (this.bomPath != null) {
-            final Artifact bomArtifact = createBomArtifact();
+            final MavenizerEvents.Install event = new MavenizerEvents.Install();
+            event.begin();
+            boolean succeeded = false;
             try {
-                final RepositorySystemSession repositorySystemSession = this.session.getRepositorySession();
-                final InstallRequest installRequest = new InstallRequest();
-                installRequest.addArtifact(bomArtifact);
-                this.repositorySystem.install(repositorySystemSession, installRequest);
+                this.repositorySystem.install(repositorySystemSession, request);
+                succeeded = true;
             } catch (final InstallationException e) {
                 throw new MojoExecutionException(e.getMessage(), e);
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.artifactIds = artifactIds(request.getArtifacts());
+                    event.artifacts = request.getArtifacts().size();
+                    event.bytes = artifactBytes(request.getArtifacts());
+                    event.succeeded = succeeded;
+                    event.commit();
+                }
+            }
+            installedArtifacts += request.getArtifacts().size();
+            sentRequests++;
+        }
+        final long installNanos = System.nanoTime() - installStart;
+
+        if (this.skipIdenticalInstalls) {
+            LOGGER.info("Skipped installation of {} artifacts ({} bytes) already present in local repository",
+                    skippedArtifacts, skippedBytes);
+        }
+        if (this.installStrategy == InstallStrategy.LINK) {
+            LOGGER.info("Hard linked {} artifacts ({} bytes) into local repository", linkedArtifacts, linkedBytes);
+        }
+        LOGGER.info("Installed {} artifacts in {} requests; preparing requests took {} ms, installation took {} ms",
+                installedArtifacts, sentRequests, TimeUnit.NANOSECONDS.toMillis(collectNanos),
+                TimeUnit.NANOSECONDS.toMillis(installNanos));
+    }
+
+    /**
+     * Hard links the artifact file into its place in the local repository. The repository system then finds the
+     * installed file with the same size and modification time and does not copy it again.
+     *
+     * @return false if the file could not be linked and has to be copied
+     */
+    private static boolean linkIntoLocalRepository(final RepositorySystemSession repositorySystemSession,
+            final Artifact artifact) throws MojoExecutionException {
+        final Path installedPath = getLocalRepositoryPath(repositorySystemSession, artifact);
+        final Path path = artifact.getFile().toPath();
+        try {
+            if (Files.exists(installedPath) && Files.isSameFile(installedPath, path)) {
+                return true;
+            }
+            Files.createDirectories(installedPath.getParent());
+            Files.deleteIfExists(installedPath);
+            Files.createLink(installedPath, path);
+            return true;
+        } catch (final UnsupportedOperationException | FileSystemException e) {
+            LOGGER.info("Cannot hard link {} into local repository, falling back to copying: {}", path,
+                    e.getLocalizedMessage());
+            LOGGER.debug("Exception", e);
+            return false;
+        } catch (final IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    private static Path getLocalRepositoryPath(final RepositorySystemSession repositorySystemSession,
+            final Artifact artifact) {
+        final LocalRepositoryManager localRepositoryManager = repositorySystemSession.getLocalRepositoryManager();
+        return localRepositoryManager.getRepository().getBasedir().toPath()
+                .resolve(localRepositoryManager.getPathForLocalArtifact(artifact));
+    }
+
+    /**
+     * @return true if the local repository already contains the artifact with the same size and digest
+     */
+    private static boolean isInstalledIdentical(final RepositorySystemSession repositorySystemSession,
+            final Artifact artifact) throws MojoExecutionException {
+        final Path installedPath = getLocalRepositoryPath(repositorySystemSession, artifact);
+        final Path path = artifact.getFile().toPath();
+        try {
+            return Files.isRegularFile(installedPath)
+                    && Files.size(installedPath) == Files.size(path)
+                    && sha256(installedPath).equals(sha256(path));
+        } catch (final IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    static HashCode sha256(final Path path) throws IOException {
+        return MoreFiles.asByteSource(path).hash(Hashing.sha256());
+    }
+
+    /**
+     * @param mappedEntries entries dependencies of the entries refer to
+     * @param sdkEntries    entries to generate POM files for
+     */
+    @VisibleForTesting
+    void generatePomFiles(final Map<String, SdkEntry> mappedEntries,
+            final Collection<SdkEntry> sdkEntries) throws MojoFailureException, MojoExecutionException {
+        // POM file names are assigned here, in the order of the entries, so that they do not depend on the order in
+        // which the worker threads finish.
+        final List<Callable<Void>> pomTasks = new ArrayList<>(sdkEntries.size());
+        for (final SdkEntry sdkEntry : sdkEntries) {
+            final String numStr = formatArtifactNumber(this.artifactCounter++);
+            final Path pomPath = this.sdkArtifactsDirPath.resolve(
+                    numStr + "-" + sdkEntry.getArtifactId() + "-" + sdkEntry.getVersion() + ".pom");
+            sdkEntry.setPomFile(pomPath);
+            pomTasks.add(() -> {
+                final MavenizerEvents.PomWrite event = new MavenizerEvents.PomWrite();
+                event.begin();
+                boolean succeeded = false;
+                try {
+                    generatePomFile(mappedEntries, sdkEntry, pomPath);
+                    succeeded = true;
+                } finally {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.artifactId = sdkEntry.getArtifactId();
+                        event.dependencies = sdkEntry.getDependencies().size();
+                        // The file may be missing or incomplete if the generation failed.
+                        event.bytes = succeeded ? Files.size(pomPath) : 0;
+                        event.succeeded = succeeded;
+                        event.commit();
+                    }
+                }
+                return null;
+            });
+        }
+        try (final WorkerPool workerPool = new WorkerPool("pom", this.threads)) {
+            workerPool.runAll(pomTasks);
+        }
+    }
+
+    /**
+     * @param resolvedEntries entries whose dependencies were resolved already, they are left as they are
+     */
+    @VisibleForTesting
+    void analyzeDependencies(final Map<String, SdkEntry> mappedEntries, final Map<String, SdkEntry> bsnMap,
+            final Set<SdkEntry> resolvedEntries) throws MojoExecutionException, MojoFailureException {
+        // Find Declarative Services implementation bundle.
+        final List<SdkEntry> dsImplementations
+            = mappedEntries
+            .values()
+            .stream()
+            .filter(SdkEntry::isDSImpl)
+            .toList();
+        SdkEntry dsImplEntry = null;
+        if (!dsImplementations.isEmpty()) {
+            dsImplEntry = dsImplementations.get(0);
+        }
+        if (dsImplementations.size() > 1) {
+            LOGGER.warn("Found multiple Declarative Services implementations: {}",
+                dsImplementations.stream().map(SdkEntry::getArtifactId).toList());
+        }
+
+        final List<SdkEntry> serviceLoaderImpls = mappedEntries
+            .values()
+            .stream()
+            .filter(SdkEntry::isServiceLoaderImpl)
+            .toList();
+        SdkEntry serviceLoaderImplEntry = null;
+        if (!serviceLoaderImpls.isEmpty()) {
+            serviceLoaderImplEntry = serviceLoaderImpls.get(0);
+        }
+        if (serviceLoaderImpls.size() > 1) {
+            LOGGER.warn("Found multiple ServiceLoader implementations: {}", serviceLoaderImpls);
+        }
+
+
+        for (final SdkEntry sdkEntry : mappedEntries.values()) {
+            if (resolvedEntries.contains(sdkEntry)) {
+                continue;
+            }
+
+            // Add dependency based on fragment host.
+            final String fragmentHost = sdkEntry.getFragmentHost();
+            if (fragmentHost != null) {
+                final SdkEntry hostSdkEntry = bsnMap.get(fragmentHost);
+                if (hostSdkEntry != null) {
+                    sdkEntry.addDependency(hostSdkEntry.getArtifactId(), DependencyType.NORMAL);
+                }
+            }
+
+            final Set<RequireBundle> requireBundles = sdkEntry.getRequireBundle();
+            for (final RequireBundle rb : requireBundles) {
+                final String requiredBundleName = rb.bundle();
+                final SdkEntry requiredBundleSdkEntry = bsnMap.get(requiredBundleName);
+                if (requiredBundleSdkEntry == null) {
+                    LOGGER.warn("Missing required bundle {} for artifact {}", requiredBundleName, sdkEntry.getArtifactId());
+                    continue;
+                }
+                sdkEntry.addDependency(requiredBundleSdkEntry.getArtifactId(), rb.dependencyType());
+            }
+
+            if (sdkEntry.isRequiresDS()) {
+                if (dsImplEntry != null) {
+                    sdkEntry.addDependency(dsImplEntry.getArtifactId(), DependencyType.NORMAL);
+                } else {
+                    LOGGER.warn("Could not find Declarative Services implementation for bundle {}", sdkEntry.getArtifactId());
+                }
+            }
+
+            if (sdkEntry.isRequiresServiceLoader()) {
+                if (serviceLoaderImplEntry != null) {
+                    sdkEntry.addDependency(serviceLoaderImplEntry.getArtifactId(), DependencyType.NORMAL);
+                } else {
+                    LOGGER.warn("Could not find Service Loader implementation for bundle {}", sdkEntry.getArtifactId());
+                }
+            }
+        }
+
+        // Add dependencies based on exported and imported packages.
+        resolveImportPackages(new ArrayList<>(mappedEntries.values()), resolvedEntries);
+    }
+
+    /**
+     * Adds dependencies on bundles exporting imported packages. Imports are resolved through an index of exports, which
+     * is read-only while imports are resolved, so entries are resolved concurrently, each adding only its own
+     * dependencies.
+     * <p>
+     * Without version range resolution, packages exported by multiple bundles are ignored. With it, an import is
+     * resolved to the bundle exporting the highest version within the imported range. Dependencies on packages exported
+     * by multiple bundles are added afterwards, in order, to the most preferred exporter which does not create a
+     * dependency cycle.
+     */
+    private void resolveImportPackages(final List<SdkEntry> sdkEntries, final Set<SdkEntry> resolvedEntries)
+            throws MojoExecutionException, MojoFailureException {
+        final ExportIndex exportIndex = new ExportIndex(sdkEntries);
+
+        final int threadCount = WorkerPool.effectiveThreads(this.threads);
+        final int chunkSize = Math.max(1, sdkEntries.size() / (threadCount * 4));
+        final List<Callable<List<CandidateDependency>>> tasks = new ArrayList<>();
+        for (int from = 0; from < sdkEntries.size(); from += chunkSize) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(sdkEntries.size(), from + chunkSize);
+            tasks.add(() -> {
+                final List<CandidateDependency> candidates = new ArrayList<>();
+                for (int i = chunkFrom; i < chunkTo; i++) {
+                    if (!resolvedEntries.contains(sdkEntries.get(i))) {
+                        resolveImportPackages(i, sdkEntries, exportIndex, candidates);
+                    }
+                }
+                return candidates;
+            });
+        }
+        final List<List<CandidateDependency>> candidates;
+        try (final WorkerPool workerPool = new WorkerPool("resolve", threadCount)) {
+            candidates = workerPool.runAll(tasks);
+        }
+
+        if (this.versionRangeResolution) {
+            addAcyclicDependencies(sdkEntries, candidates);
+        }
+    }
+
+    /**
+     * Resolves imports of a single entry. Dependencies on packages exported by a single bundle are added right away,
+     * dependencies on packages exported by multiple bundles are collected as candidates.
+     */
+    private void resolveImportPackages(final int importer, final List<SdkEntry> sdkEntries,
+            final ExportIndex exportIndex, final List<CandidateDependency> candidates) {
+        final SdkEntry sdkEntry = sdkEntries.get(importer);
+        for (final ImportPackage ip : sdkEntry.getImportPackage()) {
+            final int packageId = exportIndex.packageId(ip.pkg());
+            if (packageId == SymbolTable.NOT_FOUND) {
+                continue;
+            }
+            final int bundleCount = exportIndex.bundleCount(packageId);
+            if (!this.versionRangeResolution) {
+                if (bundleCount > 1) {
+                    // There can be split packages which are both imported and exported in multiple bundles.
+                    // To avoid cycles in dependencies, ignore these here and do not add a dependency.
+                    continue;
+                }
+                final int exporter = exportIndex.firstExporter(packageId);
+                if (exporter != importer) {
+                    sdkEntry.addDependency(sdkEntries.get(exporter).getArtifactId(), ip.dependencyType());
+                }
+                continue;
+            }
+
+            final VersionRange range = ExportIndex.parseVersionRange(ip.versionRange());
+            if (exportIndex.exportsInRange(packageId, importer, range)) {
+                // The bundle provides the package itself.
+                continue;
+            }
+            final int exporter = exportIndex.bestExporter(packageId, range);
+            if (exporter == ExportIndex.NONE) {
+                LOGGER.debug("No bundle exports package {} in version range {} imported by {}", ip.pkg(), range,
+                        sdkEntry.getArtifactId());
+            } else if (bundleCount == 1) {
+                sdkEntry.addDependency(sdkEntries.get(exporter).getArtifactId(), ip.dependencyType());
+            } else {
+                candidates.add(new CandidateDependency(importer, exportIndex.exportersInRange(packageId, range), ip));
+            }
+        }
+    }
+
+    /**
+     * Adds candidate dependencies, in order, each on the first of its exporters which does not create a new cycle in the
+     * dependency graph. Cycles already present in the dependencies do not prevent adding other dependencies.
+     */
+    @VisibleForTesting
+    static void addAcyclicDependencies(final List<SdkEntry> sdkEntries,
+            final List<List<CandidateDependency>> candidates) {
+        final Graph<String, DefaultEdge> depGraph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        sdkEntries.forEach(sdkEntry -> depGraph.addVertex(sdkEntry.getArtifactId()));
+        for (final SdkEntry sdkEntry : sdkEntries) {
+            for (final Dependency dep : sdkEntry.getDependencies()) {
+                Graphs.addEdgeWithVertices(depGraph, sdkEntry.getArtifactId(), dep.artifactId());
+            }
+        }
+
+        int added = 0;
+        int dropped = 0;
+        for (final List<CandidateDependency> chunkCandidates : candidates) {
+            for (final CandidateDependency candidate : chunkCandidates) {
+                final SdkEntry sdkEntry = sdkEntries.get(candidate.importer());
+                final String artifactId = sdkEntry.getArtifactId();
+                String exporterArtifactId = null;
+                for (final int exporter : candidate.exporters()) {
+                    final String candidateArtifactId = sdkEntries.get(exporter).getArtifactId();
+                    if (depGraph.containsEdge(artifactId, candidateArtifactId)
+                            || !isReachable(depGraph, candidateArtifactId, artifactId)) {
+                        exporterArtifactId = candidateArtifactId;
+                        depGraph.addEdge(artifactId, exporterArtifactId);
+                        break;
+                    }
+                    LOGGER.debug("Not adding dependency of {} on {} for package {}, it would create a cycle",
+                            artifactId, candidateArtifactId, candidate.importPackage().pkg());
+                }
+                if (exporterArtifactId == null) {
+                    dropped++;
+                    continue;
+                }
+                sdkEntry.addDependency(exporterArtifactId, candidate.importPackage().dependencyType());
+                if (!sdkEntry.hasDependency(exporterArtifactId)) {
+                    depGraph.removeEdge(artifactId, exporterArtifactId);
+                }
+                added++;
+            }
+        }
+        LOGGER.info("Resolved {} imports of packages exported by multiple bundles, dropped {} to avoid dependency"
+                + " cycles", added, dropped);
+    }
+
+    /**
+     * @return true if the target is reachable from the source, including the source itself
+     */
+    private static boolean isReachable(final Graph<String, DefaultEdge> graph, final String source,
+            final String target) {
+        final BreadthFirstIterator<String, DefaultEdge> iterator = new BreadthFirstIterator<>(graph, source);
+        while (iterator.hasNext()) {
+            if (target.equals(iterator.next())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Dependency of the importing entry on one of the exporting entries, all identified by their index. Exporters are
+     * in the order of preference.
+     */
+    @VisibleForTesting
+    record CandidateDependency(int importer, int[] exporters, ImportPackage importPackage) {
+    }
+
+    @VisibleForTesting
+    void analyzeMetadata(final Map<String, SdkEntry> mappedEntries,
+            final Map<String, SdkEntry> bsnMap) throws MojoExecutionException, MojoFailureException {
+        analyzeEntriesMetadata(mappedEntries);
+        registerBsns(mappedEntries, bsnMap);
+    }
+
+    /**
+     * Parses manifests of all entries concurrently. Entries which cannot be analyzed are removed, the others are
+     * compacted, with names shared through a symbol table.
+     */
+    private void analyzeEntriesMetadata(final Map<String, SdkEntry> mappedEntries)
+            throws MojoExecutionException, MojoFailureException {
+        final List<Callable<Boolean>> analysisTasks = new ArrayList<>(mappedEntries.size());
+        final SymbolTable symbols = new SymbolTable();
+        try {
+            for (final SdkEntry sdkEntry : mappedEntries.values()) {
+                if (sdkEntry.getArtifactPath() == null && sdkEntry.getArtifactEntry() != null
+                    && sdkEntry.getSdkZipFile() != null) {
+                    resolveDataOffset(sdkEntry.getSdkZipFile(), sdkEntry.getArtifactEntry());
+                }
+                analysisTasks.add(() -> {
+                    final MavenizerEvents.Analyze event = new MavenizerEvents.Analyze();
+                    event.begin();
+                    boolean analyzed = false;
+                    boolean succeeded = false;
+                    try {
+                        analyzed = analyzeEntryMetadata(sdkEntry);
+                        if (analyzed) {
+                            sdkEntry.compact(symbols);
+                        }
+                        succeeded = true;
+                    } finally {
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.artifactId = sdkEntry.getArtifactId();
+                            event.bytes = sdkEntry.getArtifactEntry() != null
+                                    ? sdkEntry.getArtifactEntry().getSize()
+                                    : 0;
+                            event.fromArchive = sdkEntry.getArtifactPath() == null;
+                            event.analyzed = analyzed;
+                            event.succeeded = succeeded;
+                            event.commit();
+                        }
+                    }
+                    return analyzed;
+                });
+            }
+        } catch (final IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        final List<Boolean> analyzed;
+        try (final WorkerPool workerPool = new WorkerPool("analyze", this.threads)) {
+            analyzed = workerPool.runAll(analysisTasks);
+        }
+
+        final Collection<String> toRemoveArtifactId = new HashSet<>(10);
+        int i = 0;
+        for (final String key : mappedEntries.keySet()) {
+            if (!analyzed.get(i++)) {
+                toRemoveArtifactId.add(key);
+            }
+        }
+        toRemoveArtifactId.forEach(key -> {
+            LOGGER.info("Ignoring bundle {}", key);
+            mappedEntries.remove(key);
+        });
+    }
+
+    /**
+     * Registers BSNs sequentially, in artifactId order, so that the first one wins in case of duplicates. Entries with
+     * duplicate BSN are removed.
+     */
+    private static void registerBsns(final Map<String, SdkEntry> mappedEntries, final Map<String, SdkEntry> bsnMap) {
+        final Collection<String> toRemoveArtifactId = new HashSet<>(10);
+        for (final Map.Entry<String, SdkEntry> entry : mappedEntries.entrySet()) {
+            if (!registerBsn(bsnMap, entry.getValue())) {
+                toRemoveArtifactId.add(entry.getKey());
             }
         }
+        toRemoveArtifactId.forEach(key -> {
+            LOGGER.info("Ignoring bundle {}", key);
+            mappedEntries.remove(key);
+        });
     }
 
-    private Artifact createBomArtifact() {
-        return new DefaultArtifact(this.groupId, "bom", "pom", this.bomVersion).setFile(this.bomPath.toFile());
+    private static boolean registerBsn(final Map<String, SdkEntry> bsnMap, final SdkEntry sdkEntry) {
+        final String symbolicName = sdkEntry.getBsn();
+        if (bsnMap.containsKey(symbolicName)) {
+            LOGGER.warn("Duplicate BSN: {}", symbolicName);
+            LOGGER.warn("Existing artifact: {}", describeArtifact(bsnMap.get(symbolicName)));
+            LOGGER.warn("This instance: {}", describeArtifact(sdkEntry));
+            return false;
+        }
+        bsnMap.put(symbolicName, sdkEntry);
+        if (sdkEntry.isDSImpl()) {
+            LOGGER.info("Found DS implementation in {}", sdkEntry.getArtifactId());
+        }
+        return true;
     }
 
-    private void generatePomFiles(
-            final Map<String, SdkEntry> mappedEntries) throws MojoFailureException, MojoExecutionException {
-        for (final SdkEntry sdkEntry : mappedEntries.values()) {
-            try {
-                generatePomFile(mappedEntries, sdkEntry);
-            } catch (final IOException e) {
-                throw new MojoExecutionException(e.getMessage(), e);
+    private void extractSdkJars(final Map<String, SdkEntry> mappedEntries) throws MojoExecutionException, MojoFailureException {
+        final List<ZipFile> sdkZipFiles = new ArrayList<>(this.equinoxSdkZipFiles.size());
+        try {
+            // Extract the entries which are not shadowed, archive by archive.
+            final Map<String, SdkEntry> winningEntries = new LinkedHashMap<>();
+            startPhase(Phase.SCAN);
+            mergeSdkArchives(mappedEntries, scanSdkArchives(this.equinoxSdkZipFiles, sdkZipFiles))
+                    .forEach(winningEntries::putAll);
+            finishPhase(Phase.SCAN, mappedEntries.size());
+
+            startPhase(Phase.EXTRACT);
+            try (final WorkerPool workerPool = new WorkerPool("extract", this.threads)) {
+                extractEntries(winningEntries, workerPool);
             }
+            finishPhase(Phase.EXTRACT, winningEntries.size());
+        } catch (final IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            sdkZipFiles.forEach(IOUtils::closeQuietly);
         }
     }
 
-    private static void analyzeDependencies(final Map<String, SdkEntry> mappedEntries,
-            final Map<String, SdkEntry> bsnMap,
-            final SetMultimap<String, String> implementedBy) {
-        // Find Declarative Services implementation bundle.
-        final List<SdkEntry> dsImplementations
-            = mappedEntries
-            .values()
-            .stream()
-            .filter(SdkEntry::isDSImpl)
-            .toList();
-        SdkEntry dsImplEntry = null;
-        if (!dsImplementations.isEmpty()) {
-            dsImplEntry = dsImplementations.get(0);
+    /**
+     * Reads central directories of the SDK archives concurrently.
+     *
+     * @param sdkZipFiles collects the opened archives, the caller has to close them
+     * @return entries of each archive, in the order of the archives
+     */
+    private List<Map<String, SdkEntry>> scanSdkArchives(final List<File> archives, final List<ZipFile> sdkZipFiles)
+            throws MojoExecutionException, MojoFailureException {
+        final List<Callable<Map<String, SdkEntry>>> scanTasks = new ArrayList<>(archives.size());
+        for (final File equinoxSdkZipFile : archives) {
+            scanTasks.add(() -> {
+                final ZipFile sdkZipFile = openSdkZipFile(equinoxSdkZipFile);
+                synchronized (sdkZipFiles) {
+                    sdkZipFiles.add(sdkZipFile);
+                }
+                return analyzeSdkArchive(equinoxSdkZipFile, sdkZipFile);
+            });
         }
-        if (dsImplementations.size() > 1) {
-            LOGGER.warn("Found multiple Declarative Services implementations: {}",
-                dsImplementations.stream().map(SdkEntry::getArtifactId).toList());
+        final int threadCount = Math.max(1, Math.min(WorkerPool.effectiveThreads(this.threads), archives.size()));
+        try (final WorkerPool workerPool = new WorkerPool("scan", threadCount)) {
+            return workerPool.runAll(scanTasks);
         }
+    }
 
-        final List<SdkEntry> serviceLoaderImpls = mappedEntries
-            .values()
-            .stream()
-            .filter(SdkEntry::isServiceLoaderImpl)
-            .toList();
-        SdkEntry serviceLoaderImplEntry = null;
-        if (!serviceLoaderImpls.isEmpty()) {
-            serviceLoaderImplEntry = serviceLoaderImpls.get(0);
+    /**
+     * Merges entries of the archives into the map. The first archive containing an artifactId wins. Entries with the
+     * same artifactId in later archives are shadowed by it and are reported.
+     *
+     * @param archiveMaps entries of each archive, in the order of the archives
+     * @return winning entries of each archive, in the order of the archives
+     */
+    private static List<Map<String, SdkEntry>> mergeSdkArchives(final Map<String, SdkEntry> mappedEntries,
+            final List<Map<String, SdkEntry>> archiveMaps) {
+        final List<Map<String, SdkEntry>> winningEntries = new ArrayList<>(archiveMaps.size());
+        int shadowedEntries = 0;
+        for (final Map<String, SdkEntry> archiveMap : archiveMaps) {
+            final Map<String, SdkEntry> archiveWinningEntries = new TreeMap<>();
+            for (final Map.Entry<String, SdkEntry> entry : archiveMap.entrySet()) {
+                final SdkEntry sdkEntry = entry.getValue();
+                final SdkEntry winningEntry = mappedEntries.putIfAbsent(entry.getKey(), sdkEntry);
+                if (winningEntry == null) {
+                    archiveWinningEntries.put(entry.getKey(), sdkEntry);
+                } else {
+                    shadowedEntries++;
+                    LOGGER.info("Ignoring {} {} from {}, it is shadowed by version {} from {}", entry.getKey(),
+                            sdkEntry.getVersion(), sdkEntry.getSdkZipPath(), winningEntry.getVersion(),
+                            winningEntry.getSdkZipPath());
+                }
+            }
+            winningEntries.add(archiveWinningEntries);
         }
-        if (serviceLoaderImpls.size() > 1) {
-            LOGGER.warn("Found multiple ServiceLoader implementations: {}", serviceLoaderImpls);
+        if (shadowedEntries != 0) {
+            LOGGER.info("Ignoring {} bundles shadowed by bundles with the same artifactId in earlier archives",
+                    shadowedEntries);
         }
+        return winningEntries;
+    }
 
+    /**
+     * Reads bundle manifests straight out of the SDK archives and extracts only the bundles which survive the metadata
+     * analysis.
+     */
+    private void analyzeAndExtractSdkJars(final Map<String, SdkEntry> mappedEntries,
+            final Map<String, SdkEntry> bsnMap) throws MojoExecutionException, MojoFailureException {
+        final List<ZipFile> sdkZipFiles = new ArrayList<>(this.equinoxSdkZipFiles.size());
+        try {
+            startPhase(Phase.SCAN);
+            mergeSdkArchives(mappedEntries, scanSdkArchives(this.equinoxSdkZipFiles, sdkZipFiles));
+            finishPhase(Phase.SCAN, mappedEntries.size());
 
-        for (final SdkEntry sdkEntry : mappedEntries.values()) {
-            // Add dependency based on fragment host.
-            final String fragmentHost = sdkEntry.getFragmentHost();
-            if (fragmentHost != null) {
-                final SdkEntry hostSdkEntry = bsnMap.get(fragmentHost);
-                if (hostSdkEntry != null) {
-                    sdkEntry.addDependency(hostSdkEntry.getArtifactId(), DependencyType.NORMAL);
-                }
+            startPhase(Phase.ANALYZE);
+            analyzeMetadata(mappedEntries, bsnMap);
+            finishPhase(Phase.ANALYZE, mappedEntries.size());
+
+            startPhase(Phase.EXTRACT);
+            try (final WorkerPool workerPool = new WorkerPool("extract", this.threads)) {
+                extractEntries(mappedEntries, workerPool);
             }
+            finishPhase(Phase.EXTRACT, mappedEntries.size());
+        } catch (final IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            sdkZipFiles.forEach(IOUtils::closeQuietly);
+        }
+    }
 
-            final Set<RequireBundle> requireBundles = sdkEntry.getRequireBundle();
-            for (final RequireBundle rb : requireBundles) {
-                final String requiredBundleName = rb.bundle();
-                final SdkEntry requiredBundleSdkEntry = bsnMap.get(requiredBundleName);
-                if (requiredBundleSdkEntry == null) {
-                    LOGGER.warn("Missing required bundle {} for artifact {}", requiredBundleName, sdkEntry.getArtifactId());
-                    continue;
-                }
-                sdkEntry.addDependency(requiredBundleSdkEntry.getArtifactId(), rb.dependencyType());
+    private static ZipFile openSdkZipFile(final File equinoxSdkZipFile) throws IOException {
+        return ZipFile.builder().setFile(equinoxSdkZipFile).get();
+    }
+
+    @VisibleForTesting
+    void extractEntries(final Map<String, SdkEntry> entries,
+            final WorkerPool workerPool) throws IOException, MojoExecutionException, MojoFailureException {
+        // Copy files out of the SDK archive. File names are assigned here, sequentially, so that they do not
+        // depend on the order in which the worker threads finish.
+        Files.createDirectories(this.sdkArtifactsDirPath);
+        final Map<Path, List<Extraction>> extractions = new LinkedHashMap<>();
+        final Map<Path, Path> reusedFileMoves = new LinkedHashMap<>();
+        final EntryExtractor entryExtractor = new EntryExtractor();
+        int reusedFiles = 0;
+        int extractedFiles = 0;
+        for (final SdkEntry sdkEntry : entries.values()) {
+            final String artifactId = sdkEntry.getArtifactId();
+            final ZipArchiveEntry artifactEntry = sdkEntry.getArtifactEntry();
+            if (artifactEntry == null) {
+                LOGGER.warn("{} does not have artifact entry", artifactId);
+                continue;
             }
 
-            if (sdkEntry.isRequiresDS()) {
-                if (dsImplEntry != null) {
-                    sdkEntry.addDependency(dsImplEntry.getArtifactId(), DependencyType.NORMAL);
-                } else {
-                    LOGGER.warn("Could not find Declarative Services implementation for bundle {}", sdkEntry.getArtifactId());
-                }
+            // Add code JAR.
+            String numStr = formatArtifactNumber(this.artifactCounter++);
+            final Path artifactPath = this.sdkArtifactsDirPath.resolve(
+                    numStr + "-" + artifactId + "-" + sdkEntry.getVersion() + ".jar");
+            sdkEntry.setArtifactPath(artifactPath);
+            if (reuseExtractedFile(sdkEntry, artifactEntry, artifactPath, reusedFileMoves)) {
+                reusedFiles++;
+            } else {
+                addExtraction(extractions, sdkEntry, artifactEntry, artifactPath);
+                extractedFiles++;
             }
 
-            if (sdkEntry.isRequiresServiceLoader()) {
-                if (serviceLoaderImplEntry != null) {
-                    sdkEntry.addDependency(serviceLoaderImplEntry.getArtifactId(), DependencyType.NORMAL);
+            // Add sources archive, if available.
+            final ZipArchiveEntry sourceEntry = sdkEntry.getSourcesEntry();
+            if (sourceEntry != null) {
+                numStr = formatArtifactNumber(this.artifactCounter++);
+                final Path sourcesPath = this.sdkArtifactsDirPath.resolve(
+                        numStr + "-" + artifactId + "-" + sdkEntry.getVersion() + "-sources.jar");
+                sdkEntry.setSourcesPath(sourcesPath);
+                if (reuseExtractedFile(sdkEntry, sourceEntry, sourcesPath, reusedFileMoves)) {
+                    reusedFiles++;
                 } else {
-                    LOGGER.warn("Could not find Service Loader implementation for bundle {}", sdkEntry.getArtifactId());
+                    addExtraction(extractions, sdkEntry, sourceEntry, sourcesPath);
+                    extractedFiles++;
                 }
             }
-
-            // Map exports to providing artifactId.
-            final Set<String> exports = sdkEntry.getExportPackage();
-            final String artifactId = sdkEntry.getArtifactId();
-            for (final String e : exports) {
-                implementedBy.put(e, artifactId);
-            }
         }
 
-        // Add dependencies based on exported and imported packages.
-        for (final SdkEntry sdkEntry : mappedEntries.values()) {
-            final Set<ImportPackage> importPackages = sdkEntry.getImportPackage();
-            for (final ImportPackage ip : importPackages) {
-                final Set<String> artifactIds = implementedBy.get(ip.pkg());
-                if (!artifactIds.isEmpty()) {
-                    if (artifactIds.size() > 1) {
-                        // There can be split packages which are both imported and exported in multiple bundles.
-                        // To avoid cycles in dependencies, ignore these here and do not add a dependency.
-                        continue;
-                    }
-                    artifactIds.forEach(implementorArtifactId -> {
-                        if (!implementorArtifactId.equals(sdkEntry.getArtifactId())) {
-                            sdkEntry.addDependency(implementorArtifactId, ip.dependencyType());
-                        }
-                    });
-                }
+        if (this.incrementalIndex != null) {
+            LOGGER.info("Reusing {} previously extracted files, extracting {} files", reusedFiles, extractedFiles);
+            // Reused files have to be moved out of the way before anything else is extracted.
+            moveReusedFiles(reusedFileMoves);
+        }
+        // Each task extracts a batch of entries of one archive, with its own archive file channel and inflater.
+        final List<Callable<Void>> extractTasks = new ArrayList<>();
+        for (final List<Extraction> archiveExtractions : extractions.values()) {
+            for (final List<Extraction> batch : Lists.partition(archiveExtractions, EXTRACT_BATCH_SIZE)) {
+                extractTasks.add(newExtractTask(entryExtractor, batch));
             }
         }
-
+        workerPool.runAll(extractTasks);
+        entryExtractor.logStatistics();
     }
 
-    private void analyzeMetadata(final Map<String, SdkEntry> mappedEntries,
-            final Map<String, SdkEntry> bsnMap) throws MojoExecutionException, MojoFailureException {
-        final Collection<String> toRemoveArtifactId = new HashSet<>(10);
-        for (final Map.Entry<String, SdkEntry> entry : mappedEntries.entrySet()) {
-            final SdkEntry sdkEntry = entry.getValue();
-            if (!analyzeEntryMetadata(bsnMap, sdkEntry)) {
-                toRemoveArtifactId.add(entry.getKey());
-            }
-        }
-        toRemoveArtifactId.forEach(key -> {
-            LOGGER.info("Ignoring bundle {}", key);
-            mappedEntries.remove(key);
-        });
+    /**
+     * Archive entry to be extracted into a file.
+     */
+    private record Extraction(SdkEntry sdkEntry, ZipArchiveEntry entry, Path path) {
     }
 
-    private void extractSdkJars(final Map<String, SdkEntry> mappedEntries) throws MojoExecutionException {
-        for (final File equinoxSdkZipFile : this.equinoxSdkZipFiles) {
-            try (final ZipFile sdkZipFile = ZipFile.builder().setFile(equinoxSdkZipFile).get()) {
-                final Enumeration<ZipArchiveEntry> entriesInPhysicalOrder = sdkZipFile.getEntriesInPhysicalOrder();
-                final Map<String, SdkEntry> thisArchiveMap = analyzeSdkArchive(entriesInPhysicalOrder);
-
-                // Copy files out of the SDK archive.
-                Files.createDirectories(this.sdkArtifactsDirPath);
-                for (final Map.Entry<String, SdkEntry> entry : thisArchiveMap.entrySet()) {
-                    final String artifactId = entry.getKey();
-                    final SdkEntry sdkEntry = entry.getValue();
-                    final ZipArchiveEntry artifactEntry = sdkEntry.getArtifactEntry();
-                    if (artifactEntry == null) {
-                        LOGGER.warn("{} does not have artifact entry", artifactId);
-                        continue;
-                    }
+    private static void addExtraction(final Map<Path, List<Extraction>> extractions, final SdkEntry sdkEntry,
+            final ZipArchiveEntry entry, final Path path) throws IOException {
+        resolveDataOffset(sdkEntry.getSdkZipFile(), entry);
+        extractions.computeIfAbsent(sdkEntry.getSdkZipPath(), p -> new ArrayList<>())
+                .add(new Extraction(sdkEntry, entry, path));
+    }
 
-                    // Add code JAR.
-                    String numStr = String.format("%04d", this.artifactCounter++);
-                    final Path artifactPath = this.sdkArtifactsDirPath.resolve(
-                            numStr + "-" + artifactId + "-" + sdkEntry.getVersion() + ".jar");
-                    sdkEntry.setArtifactPath(artifactPath);
-                    copyEntryIntoFile(sdkZipFile, artifactEntry, artifactPath);
-
-                    // Add sources archive, if available.
-                    final ZipArchiveEntry sourceEntry = sdkEntry.getSourcesEntry();
-                    if (sourceEntry != null) {
-                        numStr = String.format("%04d", this.artifactCounter++);
-                        final Path sourcesPath = this.sdkArtifactsDirPath.resolve(
-                                numStr + "-" + artifactId + "-" + sdkEntry.getVersion() + "-sources.jar");
-                        sdkEntry.setSourcesPath(sourcesPath);
-                        copyEntryIntoFile(sdkZipFile, sourceEntry, sourcesPath);
-                    }
+    /**
+     * @param batch entries of a single archive
+     */
+    private Callable<Void> newExtractTask(final EntryExtractor entryExtractor, final List<Extraction> batch) {
+        final SdkEntry firstSdkEntry = batch.get(0).sdkEntry();
+        return () -> {
+            try (final EntryExtractor.Batch extractorBatch = entryExtractor.newBatch(firstSdkEntry.getSdkZipPath(),
+                    firstSdkEntry.getSdkZipFile())) {
+                for (final Extraction extraction : batch) {
+                    extract(extractorBatch, extraction);
                 }
+            }
+            return null;
+        };
+    }
 
-                // Merge this archive's entries into cumulative map.
-                thisArchiveMap.forEach(mappedEntries::putIfAbsent);
-            } catch (final IOException e) {
-                throw new MojoExecutionException(e.getMessage(), e);
+    private void extract(final EntryExtractor.Batch extractorBatch, final Extraction extraction) throws IOException {
+        final SdkEntry sdkEntry = extraction.sdkEntry();
+        final ZipArchiveEntry entry = extraction.entry();
+        final MavenizerEvents.Extract event = new MavenizerEvents.Extract();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            extractorBatch.extract(entry, extraction.path());
+            succeeded = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.artifactId = sdkEntry.getArtifactId();
+                event.entryName = entry.getName();
+                event.compressedBytes = entry.getCompressedSize();
+                event.bytes = entry.getSize();
+                event.succeeded = succeeded;
+                event.commit();
             }
         }
+        if (this.incrementalIndex != null) {
+            this.incrementalIndex.putExtractedFile(IncrementalIndex.keyOf(sdkEntry.getSdkZipPath(), entry),
+                    extraction.path());
+        }
+    }
+
+    /**
+     * Looks up file extracted from the same archive entry by a previous run.
+     *
+     * @param moves collects files which have to be renamed to their new name
+     * @return true if the entry does not need to be extracted
+     */
+    private boolean reuseExtractedFile(final SdkEntry sdkEntry, final ZipArchiveEntry entry, final Path path,
+            final Map<Path, Path> moves) {
+        if (this.incrementalIndex == null) {
+            return false;
+        }
+        final IncrementalIndex.Key key = IncrementalIndex.keyOf(sdkEntry.getSdkZipPath(), entry);
+        final Path previousPath = this.incrementalIndex.getExtractedFile(key, this.sdkArtifactsDirPath);
+        if (previousPath == null) {
+            return false;
+        }
+        if (!previousPath.equals(path)) {
+            moves.put(previousPath, path);
+        }
+        this.incrementalIndex.putExtractedFile(key, path);
+        return true;
     }
 
-    private void generateBom(final Collection<SdkEntry> sdkEntries) throws MojoFailureException {
-        final String numStr = String.format("%04d", this.artifactCounter++);
-        this.bomPath = this.sdkArtifactsDirPath.resolve(numStr + "-bom.pom");
+    private static void moveReusedFiles(final Map<Path, Path> moves) throws IOException {
+        // Rename through temporary names first so that no reused file is overwritten by another one.
+        final Map<Path, Path> tmpMoves = new LinkedHashMap<>(moves.size());
+        for (final Map.Entry<Path, Path> move : moves.entrySet()) {
+            final Path previousPath = move.getKey();
+            final Path tmpPath = previousPath.resolveSibling(previousPath.getFileName() + ".reused");
+            Files.move(previousPath, tmpPath, StandardCopyOption.REPLACE_EXISTING);
+            tmpMoves.put(tmpPath, move.getValue());
+        }
+        for (final Map.Entry<Path, Path> move : tmpMoves.entrySet()) {
+            LOGGER.debug("Renaming {} to {}", move.getKey(), move.getValue());
+            Files.move(move.getKey(), move.getValue(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 
-        try (final BufferedWriter writer = Files.newBufferedWriter(this.bomPath, StandardCharsets.UTF_8,
+    /**
+     * @param fileName name of the BOM file, without number prefix and extension
+     */
+    @VisibleForTesting
+    void generateBom(final Collection<SdkEntry> sdkEntries, final String version,
+            final String fileName) throws MojoFailureException {
+        final String numStr = formatArtifactNumber(this.artifactCounter++);
+        final Path bomPath = this.sdkArtifactsDirPath.resolve(numStr + "-" + fileName + ".pom");
+        this.bomArtifacts.add(new DefaultArtifact(this.groupId, "bom", "pom", version).setFile(bomPath.toFile()));
+
+        try (final BufferedWriter writer = Files.newBufferedWriter(bomPath, StandardCharsets.UTF_8,
                 StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING
         )) {
-            final IndentingXMLStreamWriter xml = newIndentingXMLStreamWriter(writer);
+            final PomWriter xml = new PomWriter(writer);
 
-            xmlWritePomPreamble(xml);
+            xml.startProject();
 
-            xmlWriteGav(xml, this.groupId, "bom", this.bomVersion);
+            xmlWriteGav(xml, this.groupId, "bom", version);
 
-            xml.writeCharacters("\n");
+            xml.newLine();
 
-            xml.writeStartElement("dependencyManagement");
+            xml.startElement("dependencyManagement");
 
-            xml.writeStartElement("dependencies");
+            xml.startElement("dependencies");
 
             for (final SdkEntry sdkEntry : sdkEntries) {
-                xml.writeStartElement("dependency");
+                xml.startElement("dependency");
 
                 xmlWriteGav(xml, this.groupId, sdkEntry.getArtifactId(), sdkEntry.getVersion());
 
-                xml.writeEndElement(); // dependency
+                xml.endElement(); // dependency
             }
 
-            xml.writeEndElement(); // dependencies
-
-            xml.writeEndElement(); // dependencyManagement
+            xml.endElement(); // dependencies
 
-            xml.writeEndElement(); // project
+            xml.endElement(); // dependencyManagement
 
-            xml.writeEndDocument();
+            xml.endProject();
             xml.flush();
-        } catch (final XMLStreamException | IOException e) {
+        } catch (final IOException e) {
             throw new MojoFailureException(e.getMessage(), e);
         }
     }
 
-    private void generatePomFile(final Map<String, SdkEntry> mappedEntries,
-            final SdkEntry sdkEntry) throws IOException, MojoFailureException {
-        final String artifactId = sdkEntry.getArtifactId();
-        final String numStr = String.format("%04d", this.artifactCounter++);
-        final Path pomPath = this.sdkArtifactsDirPath.resolve(
-                numStr + "-" + artifactId + "-" + sdkEntry.getVersion() + ".pom");
-        sdkEntry.setPomFile(pomPath);
+    private void generatePomFile(final Map<String, SdkEntry> mappedEntries, final SdkEntry sdkEntry,
+            final Path pomPath) throws IOException, MojoFailureException {
         try (final BufferedWriter writer = Files.newBufferedWriter(pomPath, StandardCharsets.UTF_8,
                 StandardOpenOption.WRITE,
                 StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING
         )) {
-            final IndentingXMLStreamWriter xml = newIndentingXMLStreamWriter(writer);
+            final PomWriter xml = new PomWriter(writer);
 
-            xmlWritePomPreamble(xml);
+            xml.startProject();
 
             xmlWriteGav(xml, this.groupId, sdkEntry.getArtifactId(), sdkEntry.getVersion());
 
-            xml.writeCharacters("\n");
+            xml.newLine();
 
             boolean nlAfterDescOrName = false;
             final String sdkEntryName = sdkEntry.getName();
             if (StringUtils.isNotBlank(sdkEntryName)) {
-                writeTag(xml, sdkEntryName, "name");
+                xml.element("name", sdkEntryName);
                 nlAfterDescOrName = true;
             }
 
             final String sdkEntryDesc = sdkEntry.getDescription();
             if (StringUtils.isNotBlank(sdkEntryDesc)) {
-                writeTag(xml, sdkEntryDesc, "description");
+                xml.element("description", sdkEntryDesc);
                 nlAfterDescOrName = true;
             }
 
             if (nlAfterDescOrName) {
-                xml.writeCharacters("\n");
+                xml.newLine();
             }
 
             if (sdkEntry.isRequiresStart()) {
-                xml.writeCharacters("\n");
-                xml.writeComment("This OSGi bundle requires to be started.");
-                xml.writeCharacters("\n");
+                xml.newLine();
+                xml.comment("This OSGi bundle requires to be started.");
+                xml.newLine();
             }
 
             final Collection<Dependency> dependencies = sdkEntry.getDependencies();
             if (dependencies != null && !dependencies.isEmpty()) {
-                xml.writeCharacters("\n");
-                xml.writeComment("These dependencies are best effort generated dependencies.");
-                xml.writeCharacters("\n");
-                xml.writeComment("They are not necessarily complete.");
+                xml.newLine();
+                xml.comment("These dependencies are best effort generated dependencies.");
+                xml.newLine();
+                xml.comment("They are not necessarily complete.");
 
-                xml.writeStartElement("dependencies");
+                xml.startElement("dependencies");
 
                 for (final Dependency dep : dependencies) {
                     final String depArtifactId = dep.artifactId();
@@ -640,100 +2137,64 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
                         throw new MojoFailureException("Self reference in dependencies: " + sdkEntry);
                     }
 
-                    xml.writeStartElement("dependency");
+                    xml.startElement("dependency");
 
                     xmlWriteGav(xml, this.groupId, depArtifactId, depSdkEntry.getVersion(), dep.dependencyType());
 
-                    xml.writeEndElement(); // dependency
+                    xml.endElement(); // dependency
                 }
 
-                xml.writeEndElement(); // dependencies
+                xml.endElement(); // dependencies
             }
 
-            xml.writeEndElement(); // project
-
-            xml.writeEndDocument();
+            xml.endProject();
             xml.flush();
-        } catch (final XMLStreamException e) {
-            throw new MojoFailureException(e.getMessage(), e);
         }
     }
 
-    private static void xmlWritePomPreamble(final IndentingXMLStreamWriter xml) throws XMLStreamException {
-        xml.writeStartDocument("UTF-8", "1.0");
-
-        final String mavenUri = "http://maven.apache.org/POM/4.0.0";
-        xml.setDefaultNamespace(mavenUri);
-        xml.setPrefix("xsi", XSI_URL);
-
-        xml.writeStartElement("project");
-        xml.writeAttribute(XSI_URL, "schemaLocation",
-                "http://maven.apache.org/POM/4.0.0 https://maven.apache.org/xsd/maven-4.0.0.xsd"
-        );
-
-        xml.writeStartElement(mavenUri, "modelVersion");
-        xml.writeCharacters("4.0.0");
-        xml.writeEndElement();
-
-        xml.writeCharacters("\n");
-    }
-
-    @NotNull
-    private static IndentingXMLStreamWriter newIndentingXMLStreamWriter(
-            @NotNull final BufferedWriter writer) throws XMLStreamException {
-        final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
-        xmlOutputFactory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
-        return new IndentingXMLStreamWriter(xmlOutputFactory.createXMLStreamWriter(writer));
-    }
-
-    private static void writeTag(final IndentingXMLStreamWriter xml, final String text,
-            final String tag) throws XMLStreamException {
-        xml.writeStartElement(tag);
-        xml.writeCharacters(text);
-        xml.writeEndElement(); // tag
+    /**
+     * @return number zero padded to four digits, used as prefix of file names
+     */
+    static String formatArtifactNumber(final int number) {
+        final String digits = Integer.toString(number);
+        return digits.length() >= 4 ? digits : "0000".substring(digits.length()) + digits;
     }
 
-    private void xmlWriteGav(final IndentingXMLStreamWriter xml, final String depGroupId, final String depArtifactId,
+    private void xmlWriteGav(final PomWriter xml, final String depGroupId, final String depArtifactId,
             final String depVersion)
-            throws XMLStreamException {
+            throws IOException {
         xmlWriteGav(xml, depGroupId, depArtifactId, depVersion, DependencyType.NORMAL);
     }
 
-    private void xmlWriteGav(final IndentingXMLStreamWriter xml, final String depGroupId, final String depArtifactId,
+    private void xmlWriteGav(final PomWriter xml, final String depGroupId, final String depArtifactId,
             final String depVersion, final DependencyType dependencyType)
-            throws XMLStreamException {
-        writeTag(xml, depGroupId, "groupId");
-        writeTag(xml, depArtifactId, "artifactId");
-        writeTag(xml, depVersion, "version");
+            throws IOException {
+        xml.element("groupId", depGroupId);
+        xml.element("artifactId", depArtifactId);
+        xml.element("version", depVersion);
         if (dependencyType == DependencyType.OPTIONAL) {
-            writeTag(xml, "true", "optional");
+            xml.element("optional", "true");
         }
     }
 
-    private void installArtifact(final SdkEntry sdkEntry) throws MojoExecutionException {
-        final RepositorySystemSession repositorySystemSession = this.session.getRepositorySession();
-        final InstallRequest installRequest = new InstallRequest();
-
+    /**
+     * @return main artifact of the entry followed by its sources and POM artifacts, if available
+     */
+    private List<Artifact> createEntryArtifacts(final SdkEntry sdkEntry) {
+        final List<Artifact> artifacts = new ArrayList<>(3);
         final Artifact mainArtifact = createMainArtifact(sdkEntry);
-        installRequest.addArtifact(mainArtifact);
+        artifacts.add(mainArtifact);
 
         final Path sourcesPath = sdkEntry.getSourcesPath();
         if (sourcesPath != null) {
-            final SubArtifact sourcesArtifact = createSourceSubartifact(mainArtifact, sourcesPath);
-            installRequest.addArtifact(sourcesArtifact);
+            artifacts.add(createSourceSubartifact(mainArtifact, sourcesPath));
         }
 
         final Path pomPath = sdkEntry.getPomFile();
         if (pomPath != null) {
-            final SubArtifact pomArtifact = createPomSubartifact(mainArtifact, pomPath);
-            installRequest.addArtifact(pomArtifact);
-        }
-
-        try {
-            this.repositorySystem.install(repositorySystemSession, installRequest);
-        } catch (final InstallationException e) {
-            throw new MojoExecutionException(e.getMessage(), e);
+            artifacts.add(createPomSubartifact(mainArtifact, pomPath));
         }
+        return artifacts;
     }
 
     private Artifact createMainArtifact(final SdkEntry sdkEntry) {
@@ -742,27 +2203,28 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
         ).setFile(sdkEntry.getArtifactPath().toFile());
     }
 
-    private static void copyEntryIntoFile(final ZipFile sdkZipFile, final ZipArchiveEntry artifactEntry,
-            final Path artifactPath) throws IOException {
-        LOGGER.info("Extracting {} as {}", artifactEntry.getName(), artifactPath);
-        try (final InputStream zipEntryInputStream = sdkZipFile.getInputStream(artifactEntry);
-             final InputStream inputStream = IOUtils.toBufferedInputStream(zipEntryInputStream, 0x10000);
-             final OutputStream outputFileStream = Files.newOutputStream(artifactPath, StandardOpenOption.WRITE,
-                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING
-             )) {
-            IOUtils.copyLarge(inputStream, outputFileStream, new byte[0x10000]);
-        }
+    /**
+     * Commons Compress {@link ZipFile} reads entry data using positional reads, so entries can be read concurrently,
+     * but it looks up the offset of the data behind the local file header lazily, using the shared channel position.
+     * This forces the lookup to happen on the calling thread.
+     */
+    @VisibleForTesting
+    static void resolveDataOffset(final ZipFile sdkZipFile, final ZipArchiveEntry entry) throws IOException {
+        sdkZipFile.getRawInputStream(entry).close();
     }
 
     /**
      *
-     * @param entries archive entries enumeration
+     * @param equinoxSdkZipFile path of the SDK archive
+     * @param sdkZipFile SDK archive
      * @return SdkEntry map for this ZIP file only.
      */
-    private Map<String, SdkEntry> analyzeSdkArchive(@NotNull final Enumeration<ZipArchiveEntry> entries) {
+    @VisibleForTesting
+    Map<String, SdkEntry> analyzeSdkArchive(@NotNull final File equinoxSdkZipFile,
+            @NotNull final ZipFile sdkZipFile) {
         final boolean debugEnabled = LOGGER.isDebugEnabled();
         final Map<String, SdkEntry> thisArchiveMap = new TreeMap<>();
-        entries.asIterator().forEachRemaining(zae -> {
+        sdkZipFile.getEntriesInPhysicalOrder().asIterator().forEachRemaining(zae -> {
             if (zae.isDirectory() || zae.isUnixSymlink() || !zae.isStreamContiguous()
                     || !zae.getName().startsWith("plugins/")) {
                 if (debugEnabled) {
@@ -772,10 +2234,16 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
             }
             analyzeOneEntry(thisArchiveMap, zae);
         });
+        final Path sdkZipPath = equinoxSdkZipFile.toPath();
+        thisArchiveMap.values().forEach(sdkEntry -> {
+            sdkEntry.setSdkZipPath(sdkZipPath);
+            sdkEntry.setSdkZipFile(sdkZipFile);
+        });
         return thisArchiveMap;
     }
 
-    private static Optional<SdkEntry> analyzeOneEntry(final Map<String, SdkEntry> mappedEntries, final ZipArchiveEntry zae) {
+    @VisibleForTesting
+    static Optional<SdkEntry> analyzeOneEntry(final Map<String, SdkEntry> mappedEntries, final ZipArchiveEntry zae) {
         final String fileName = FilenameUtils.getName(zae.getName());
         if (!fileName.endsWith(".jar") || !fileName.contains("_")) {
             return Optional.empty();
@@ -832,9 +2300,8 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
             if (jarEntry == null) {
                 continue;
             }
-            try (final InputStream propertiesInput = jarFile.getInputStream(jarEntry);
-                 final Reader reader = new InputStreamReader(propertiesInput, StandardCharsets.UTF_8)) {
-                props.load(reader);
+            try (final InputStream propertiesInput = jarFile.getInputStream(jarEntry)) {
+                loadProperties(props, propertiesInput);
             } catch (final IOException e) {
                 throw new MojoExecutionException(e.getMessage(), e);
             }
@@ -842,6 +2309,65 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
         return props;
     }
 
+    private static Properties loadAllPropertiesSources(final ZipFile sdkZipFile,
+            final ZipArchiveEntry artifactEntry) throws MojoExecutionException {
+        final Map<String, byte[]> sources = new HashMap<>(PROP_SOURCES.length);
+        try (final ZipArchiveInputStream jarInputStream = openNestedJar(sdkZipFile, artifactEntry)) {
+            for (ZipArchiveEntry ze = jarInputStream.getNextEntry();
+                 ze != null && sources.size() < PROP_SOURCES.length;
+                 ze = jarInputStream.getNextEntry()) {
+                if (ArrayUtils.contains(PROP_SOURCES, ze.getName())) {
+                    sources.put(ze.getName(), jarInputStream.readAllBytes());
+                }
+            }
+
+            // Load the sources in the same order as from an extracted JAR.
+            final Properties props = new Properties();
+            for (final String source : PROP_SOURCES) {
+                final byte[] bytes = sources.get(source);
+                if (bytes != null) {
+                    loadProperties(props, new ByteArrayInputStream(bytes));
+                }
+            }
+            return props;
+        } catch (final IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    private static void loadProperties(final Properties props, final InputStream propertiesInput) throws IOException {
+        try (final Reader reader = new InputStreamReader(propertiesInput, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+    }
+
+    /**
+     * Reads {@code META-INF/MANIFEST.MF} of a bundle JAR by streaming it out of the SDK archive. Reading stops as soon as
+     * the manifest is found.
+     */
+    private static Map<String, String> readManifestFromSdkArchive(final SdkEntry sdkEntry)
+            throws IOException, BundleException, MojoFailureException {
+        try (final ZipArchiveInputStream jarInputStream = openNestedJar(sdkEntry.getSdkZipFile(),
+                sdkEntry.getArtifactEntry())) {
+            for (ZipArchiveEntry ze = jarInputStream.getNextEntry(); ze != null; ze = jarInputStream.getNextEntry()) {
+                if (JarFile.MANIFEST_NAME.equalsIgnoreCase(ze.getName())) {
+                    return ManifestElement.parseBundleManifest(jarInputStream, new CaseInsensitiveDictionaryMap<>(10));
+                }
+            }
+        }
+        throw new MojoFailureException(sdkEntry.getArtifactId() + " is missing MANIFEST.MF");
+    }
+
+    /**
+     * Opens a bundle JAR nested in the SDK archive for streaming. STORED entries followed by a data descriptor are
+     * allowed, some JAR tools write them and {@link java.util.zip.ZipInputStream} cannot read them.
+     */
+    private static ZipArchiveInputStream openNestedJar(final ZipFile sdkZipFile,
+            final ZipArchiveEntry artifactEntry) throws IOException {
+        return new ZipArchiveInputStream(new BufferedInputStream(sdkZipFile.getInputStream(artifactEntry), 0x2000),
+                StandardCharsets.UTF_8.name(), true, true);
+    }
+
     private static Optional<String> resolvePlaceholder(final Properties props, final String placeholder) {
         if (placeholder.startsWith("%")) {
             return Optional.ofNullable(props.getProperty(placeholder.substring(1)));
@@ -850,139 +2376,205 @@ public class EquinoxMavenizerMojo extends AbstractMojo {
         }
     }
 
-    private boolean analyzeEntryMetadata(final Map<String, SdkEntry> bsnMap,
-            final SdkEntry sdkEntry) throws MojoExecutionException, MojoFailureException {
+    /**
+     * Parses manifest of a single bundle into its {@link SdkEntry}. This is safe to call concurrently for different
+     * entries.
+     *
+     * @return false if the bundle has no BSN or is ignored
+     */
+    @VisibleForTesting
+    boolean analyzeEntryMetadata(final SdkEntry sdkEntry) throws MojoExecutionException, MojoFailureException {
+        final IncrementalIndex.Key indexKey = this.incrementalIndex != null && sdkEntry.getArtifactEntry() != null
+                ? IncrementalIndex.keyOf(sdkEntry.getSdkZipPath(), sdkEntry.getArtifactEntry())
+                : null;
+        if (indexKey != null) {
+            final Boolean restored = this.incrementalIndex.restoreMetadata(indexKey, sdkEntry, this.ignoredBsns);
+            if (restored != null) {
+                return restored;
+            }
+        }
+
         final Path artifactPath = sdkEntry.getArtifactPath();
-        if (artifactPath == null) {
+        if (artifactPath != null) {
+            // Only the manifest and the properties files are read, there is no need to verify signatures.
+            try (final JarFile jarFile = new JarFile(artifactPath.toFile(), false)) {
+                final JarEntry manifestJarEntry = jarFile.getJarEntry(JarFile.MANIFEST_NAME);
+                if (manifestJarEntry == null) {
+                    throw new MojoFailureException(sdkEntry.getArtifactId() + " is missing MANIFEST.MF");
+                }
+
+                final Map<String, String> manifestMap;
+                try (final InputStream manifestInputStream = jarFile.getInputStream(manifestJarEntry)) {
+                    manifestMap = ManifestElement.parseBundleManifest(manifestInputStream,
+                            new CaseInsensitiveDictionaryMap<>(10)
+                    );
+                }
+                return analyzeManifest(sdkEntry, indexKey, manifestMap, () -> loadAllPropertiesSources(jarFile));
+            } catch (final IOException | BundleException e) {
+                throw new MojoExecutionException(e.getMessage(), e);
+            }
+        }
+
+        final ZipArchiveEntry artifactEntry = sdkEntry.getArtifactEntry();
+        if (artifactEntry == null || sdkEntry.getSdkZipFile() == null) {
             return false;
         }
-        try (final JarFile jarFile = new JarFile(artifactPath.toFile())) {
-            final JarEntry manifestJarEntry = jarFile.getJarEntry(JarFile.MANIFEST_NAME);
-            if (manifestJarEntry == null) {
-                throw new MojoFailureException(sdkEntry.getArtifactId() + " is missing MANIFEST.MF");
-            }
+        try {
+            final Map<String, String> manifestMap = readManifestFromSdkArchive(sdkEntry);
+            return analyzeManifest(sdkEntry, indexKey, manifestMap,
+                    () -> loadAllPropertiesSources(sdkEntry.getSdkZipFile(), artifactEntry));
+        } catch (final IOException | BundleException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
 
-            final Map<String, String> manifestMap;
-            try (final InputStream manifestInputStream = jarFile.getInputStream(manifestJarEntry)) {
-                manifestMap = ManifestElement.parseBundleManifest(manifestInputStream,
-                        new CaseInsensitiveDictionaryMap<>(10)
-                );
-            }
-            final String symbolicNameStr = manifestMap.get(Constants.BUNDLE_SYMBOLICNAME);
-            if (symbolicNameStr == null) {
-                return false;
-            }
-            final ManifestElement[] symbolicNameElements = ManifestElement.parseHeader(Constants.BUNDLE_SYMBOLICNAME, symbolicNameStr);
-            final String symbolicName = symbolicNameElements[0].getValue();
-            if (this.ignoredBsns.contains(symbolicNameStr)) {
-                return false;
-            }
-            sdkEntry.setBsn(symbolicName);
-            if (bsnMap.containsKey(symbolicName)) {
-                LOGGER.warn("Duplicate BSN: {}", symbolicName);
-                LOGGER.warn("Existing artifact: {}", bsnMap.get(symbolicName).getArtifactPath());
-                LOGGER.warn("This instance: {}", artifactPath);
-                return false;
-            }
-            bsnMap.put(symbolicName, sdkEntry);
+    @FunctionalInterface
+    private interface PropertiesLoader {
+        Properties load() throws MojoExecutionException;
+    }
 
-            final ManifestElement[] requireBundleElements = parseManifestHeader(manifestMap, Constants.REQUIRE_BUNDLE);
-            for (final ManifestElement me : requireBundleElements) {
-                final String requiredBundleBsn = me.getValue();
-                final String resolutionValue = me.getDirective(Constants.RESOLUTION_DIRECTIVE);
-                sdkEntry.addRequireBundle(requiredBundleBsn, resolutionToDepType(resolutionValue));
-            }
+    /**
+     * @return file the entry was extracted into or name of the entry in the SDK archive
+     */
+    private static Object describeArtifact(final SdkEntry sdkEntry) {
+        final Path artifactPath = sdkEntry.getArtifactPath();
+        if (artifactPath != null) {
+            return artifactPath;
+        }
+        final ZipArchiveEntry artifactEntry = sdkEntry.getArtifactEntry();
+        return artifactEntry != null ? artifactEntry.getName() : sdkEntry.getArtifactId();
+    }
 
-            final ManifestElement[] importPackages = parseManifestHeader(manifestMap, Constants.IMPORT_PACKAGE);
-            for (final ManifestElement pkg : importPackages) {
-                final String resolutionValue = pkg.getDirective(Constants.RESOLUTION_DIRECTIVE);
-                sdkEntry.addImportPackage(pkg.getValue(), resolutionToDepType(resolutionValue));
-            }
-            final ManifestElement[] dynamicImportPackages = parseManifestHeader(manifestMap, Constants.DYNAMICIMPORT_PACKAGE);
-            for (final ManifestElement pkg : dynamicImportPackages) {
-                final String value = pkg.getValue();
-                if (!Strings.CS.endsWith(value, "*")) {
-                    sdkEntry.addImportPackage(value, DependencyType.OPTIONAL);
-                }
-            }
+    private boolean analyzeManifest(final SdkEntry sdkEntry, final IncrementalIndex.Key indexKey,
+            final Map<String, String> manifestMap,
+            final PropertiesLoader propertiesLoader) throws MojoExecutionException, BundleException {
+        final boolean result = analyzeManifest(sdkEntry, manifestMap, propertiesLoader);
+        final String symbolicNameStr = manifestMap.get(Constants.BUNDLE_SYMBOLICNAME);
+        // Ignored bundles are not analyzed completely, do not record them.
+        if (indexKey != null && (result || symbolicNameStr == null)) {
+            this.incrementalIndex.putMetadata(indexKey, symbolicNameStr, sdkEntry);
+        }
+        return result;
+    }
 
-            final ManifestElement[] exportPackages = parseManifestHeader(manifestMap, Constants.EXPORT_PACKAGE);
-            for (final ManifestElement pkg : exportPackages) {
-                sdkEntry.addExportPackage(pkg.getValue());
-            }
+    private boolean analyzeManifest(final SdkEntry sdkEntry, final Map<String, String> manifestMap,
+            final PropertiesLoader propertiesLoader) throws MojoExecutionException, BundleException {
+        final String symbolicNameStr = manifestMap.get(Constants.BUNDLE_SYMBOLICNAME);
+        if (symbolicNameStr == null) {
+            return false;
+        }
+        final ManifestElement[] symbolicNameElements = ManifestElement.parseHeader(Constants.BUNDLE_SYMBOLICNAME, symbolicNameStr);
+        final String symbolicName = symbolicNameElements[0].getValue();
+        if (this.ignoredBsns.contains(symbolicNameStr)) {
+            return false;
+        }
+        sdkEntry.setBsn(symbolicName);
 
-            final Properties properties = loadAllPropertiesSources(jarFile);
+        final ManifestElement[] requireBundleElements = parseManifestHeader(manifestMap, Constants.REQUIRE_BUNDLE);
+        for (final ManifestElement me : requireBundleElements) {
+            final String requiredBundleBsn = me.getValue();
+            final String resolutionValue = me.getDirective(Constants.RESOLUTION_DIRECTIVE);
+            sdkEntry.addRequireBundle(requiredBundleBsn, resolutionToDepType(resolutionValue));
+        }
 
-            final String manifestBundleName = manifestMap.getOrDefault(Constants.BUNDLE_NAME, "").trim();
-            if (StringUtils.isNotBlank(manifestBundleName)) {
-                resolvePlaceholder(properties, manifestBundleName)
-                        .ifPresent(sdkEntry::setName);
+        final ManifestElement[] importPackages = parseManifestHeader(manifestMap, Constants.IMPORT_PACKAGE);
+        for (final ManifestElement pkg : importPackages) {
+            final String resolutionValue = pkg.getDirective(Constants.RESOLUTION_DIRECTIVE);
+            sdkEntry.addImportPackage(pkg.getValue(), resolutionToDepType(resolutionValue), getVersionAttribute(pkg));
+        }
+        final ManifestElement[] dynamicImportPackages = parseManifestHeader(manifestMap, Constants.DYNAMICIMPORT_PACKAGE);
+        for (final ManifestElement pkg : dynamicImportPackages) {
+            final String value = pkg.getValue();
+            if (!Strings.CS.endsWith(value, "*")) {
+                sdkEntry.addImportPackage(value, DependencyType.OPTIONAL, getVersionAttribute(pkg));
             }
+        }
 
-            final String manifestBundleDesc = manifestMap.getOrDefault(Constants.BUNDLE_DESCRIPTION, "").trim();
-            if (StringUtils.isNotBlank(manifestBundleDesc)) {
-                resolvePlaceholder(properties, manifestBundleDesc)
-                        .ifPresent(sdkEntry::setDescription);
-            }
+        final ManifestElement[] exportPackages = parseManifestHeader(manifestMap, Constants.EXPORT_PACKAGE);
+        for (final ManifestElement pkg : exportPackages) {
+            sdkEntry.addExportPackage(pkg.getValue(), getVersionAttribute(pkg));
+        }
 
-            final ManifestElement[] fragmentHostElements = parseManifestHeader(manifestMap, Constants.FRAGMENT_HOST);
-            if (fragmentHostElements.length != 0) {
-                // Record dependency of the host bundle on this fragment.
-                final ManifestElement me = fragmentHostElements[0];
-                String fragmentHostBSN = me.getValue();
-                if (fragmentHostBSN.equals(Constants.SYSTEM_BUNDLE_SYMBOLICNAME)) {
-                    fragmentHostBSN = EquinoxContainer.NAME;
-                }
-                sdkEntry.setFragmentHost(fragmentHostBSN);
-            }
+        // Properties files are only needed to resolve %placeholder values.
+        final String manifestBundleName = manifestMap.getOrDefault(Constants.BUNDLE_NAME, "").trim();
+        final String manifestBundleDesc = manifestMap.getOrDefault(Constants.BUNDLE_DESCRIPTION, "").trim();
+        final Properties properties = manifestBundleName.startsWith("%") || manifestBundleDesc.startsWith("%")
+                ? propertiesLoader.load()
+                : new Properties();
 
-            final ManifestElement[] serviceComponent = parseManifestHeader(manifestMap, "Service-Component");
-            if (serviceComponent != null && serviceComponent.length > 0) {
-                sdkEntry.setRequiresDS(true);
-            }
+        if (StringUtils.isNotBlank(manifestBundleName)) {
+            resolvePlaceholder(properties, manifestBundleName)
+                    .ifPresent(sdkEntry::setName);
+        }
 
-            final ManifestElement[] bundleActivatorElements = parseManifestHeader(manifestMap, Constants.BUNDLE_ACTIVATOR);
-            if (bundleActivatorElements != null
-                && bundleActivatorElements.length > 0) {
-                sdkEntry.setHasBundleActivator(true);
+        if (StringUtils.isNotBlank(manifestBundleDesc)) {
+            resolvePlaceholder(properties, manifestBundleDesc)
+                    .ifPresent(sdkEntry::setDescription);
+        }
+
+        final ManifestElement[] fragmentHostElements = parseManifestHeader(manifestMap, Constants.FRAGMENT_HOST);
+        if (fragmentHostElements.length != 0) {
+            // Record dependency of the host bundle on this fragment.
+            final ManifestElement me = fragmentHostElements[0];
+            String fragmentHostBSN = me.getValue();
+            if (fragmentHostBSN.equals(Constants.SYSTEM_BUNDLE_SYMBOLICNAME)) {
+                fragmentHostBSN = EquinoxContainer.NAME;
             }
+            sdkEntry.setFragmentHost(fragmentHostBSN);
+        }
 
-            final ManifestElement[] provideCapabilityElements = parseManifestHeader(manifestMap, Constants.PROVIDE_CAPABILITY);
-            if (provideCapabilityElements != null) {
-                for (final var capabilityLine : provideCapabilityElements) {
-                    final var value = capabilityLine.getValue();
-                    if (value.equals("osgi.extender")) {
-                        final String attribute = capabilityLine.getAttribute("osgi.extender");
-                        if (Strings.CS.equals(attribute, "osgi.component")) {
-                            // This is Declarative Services implementation.
-                            sdkEntry.setDSImpl(true);
-                            LOGGER.info("Found DS implementation in {}", sdkEntry.getArtifactId());
-                        } else if (Strings.CS.equals(attribute, "osgi.serviceloader.registrar")
-                            || Strings.CS.equals(attribute, "osgi.serviceloader.processor")) {
-                            sdkEntry.setServiceLoaderImpl(true);
-                        }
-                    } else if (value.equals("osgi.serviceloader")) {
-                        sdkEntry.setRequiresServiceLoader(true);
+        final ManifestElement[] serviceComponent = parseManifestHeader(manifestMap, "Service-Component");
+        if (serviceComponent != null && serviceComponent.length > 0) {
+            sdkEntry.setRequiresDS(true);
+        }
+
+        final ManifestElement[] bundleActivatorElements = parseManifestHeader(manifestMap, Constants.BUNDLE_ACTIVATOR);
+        if (bundleActivatorElements != null
+            && bundleActivatorElements.length > 0) {
+            sdkEntry.setHasBundleActivator(true);
+        }
+
+        final ManifestElement[] provideCapabilityElements = parseManifestHeader(manifestMap, Constants.PROVIDE_CAPABILITY);
+        if (provideCapabilityElements != null) {
+            for (final var capabilityLine : provideCapabilityElements) {
+                final var value = capabilityLine.getValue();
+                if (value.equals("osgi.extender")) {
+                    final String attribute = capabilityLine.getAttribute("osgi.extender");
+                    if (Strings.CS.equals(attribute, "osgi.component")) {
+                        // This is Declarative Services implementation.
+                        sdkEntry.setDSImpl(true);
+                    } else if (Strings.CS.equals(attribute, "osgi.serviceloader.registrar")
+                        || Strings.CS.equals(attribute, "osgi.serviceloader.processor")) {
+                        sdkEntry.setServiceLoaderImpl(true);
                     }
+                } else if (value.equals("osgi.serviceloader")) {
+                    sdkEntry.setRequiresServiceLoader(true);
                 }
             }
+        }
 
-            final ManifestElement[] requireCapabilityElements = parseManifestHeader(manifestMap, Constants.REQUIRE_CAPABILITY);
-            if (requireCapabilityElements != null) {
-                for (final var requirementLine : requireCapabilityElements) {
-                    final var value = requirementLine.getValue();
-                    if (value.equals("osgi.serviceloader")) {
-                        sdkEntry.setRequiresServiceLoader(true);
-                    }
+        final ManifestElement[] requireCapabilityElements = parseManifestHeader(manifestMap, Constants.REQUIRE_CAPABILITY);
+        if (requireCapabilityElements != null) {
+            for (final var requirementLine : requireCapabilityElements) {
+                final var value = requirementLine.getValue();
+                if (value.equals("osgi.serviceloader")) {
+                    sdkEntry.setRequiresServiceLoader(true);
                 }
             }
-        } catch (final IOException | BundleException e) {
-            throw new MojoExecutionException(e.getMessage(), e);
         }
 
         return true;
     }
 
+    /**
+     * @return value of the version attribute of a package, or of its deprecated specification-version alias
+     */
+    private static String getVersionAttribute(final ManifestElement pkg) {
+        final String version = pkg.getAttribute(Constants.VERSION_ATTRIBUTE);
+        // Constants.PACKAGE_SPECIFICATION_VERSION is deprecated, bundles still use the attribute.
+        return version != null ? version : pkg.getAttribute("specification-version");
+    }
+
     @NotNull
     private static DependencyType resolutionToDepType(final String resolutionValue) {
         return Strings.CI.equals(resolutionValue, Constants.RESOLUTION_OPTIONAL) ? DependencyType.OPTIONAL : DependencyType.NORMAL;
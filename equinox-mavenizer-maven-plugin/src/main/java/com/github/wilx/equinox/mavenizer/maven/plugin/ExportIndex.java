@@ -0,0 +1,233 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.ExportPackage;
+import org.osgi.framework.Version;
+import org.osgi.framework.VersionRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Index of exported packages. Package names are interned in a {@link SymbolTable}. Exporters of all packages are kept
+ * in flat arrays, grouped by package ID and sorted by exported version, so that the best exporter of a version range
+ * is found by binary search. Bundles are identified by their index in the list the index was built from. The index is
+ * immutable once built and can be read concurrently.
+ */
+final class ExportIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportIndex.class);
+    static final int NONE = -1;
+    private static final VersionRange ANY_VERSION = new VersionRange(VersionRange.LEFT_CLOSED, Version.emptyVersion,
+            null, VersionRange.RIGHT_OPEN);
+
+    private final SymbolTable packages = new SymbolTable();
+    /**
+     * Exporters of package with ID {@code i} are at positions from {@code offsets[i]} to {@code offsets[i + 1]}.
+     */
+    private final int[] offsets;
+    private final int[] exporters;
+    private final Version[] versions;
+    private final int[] bundleCounts;
+
+    ExportIndex(final List<SdkEntry> sdkEntries) {
+        int exportCount = 0;
+        for (final SdkEntry sdkEntry : sdkEntries) {
+            for (final ExportPackage ep : sdkEntry.getExportPackage()) {
+                this.packages.intern(ep.pkg());
+                exportCount++;
+            }
+        }
+
+        final int packageCount = this.packages.size();
+        this.offsets = new int[packageCount + 1];
+        for (final SdkEntry sdkEntry : sdkEntries) {
+            for (final ExportPackage ep : sdkEntry.getExportPackage()) {
+                this.offsets[this.packages.find(ep.pkg()) + 1]++;
+            }
+        }
+        for (int i = 0; i < packageCount; i++) {
+            this.offsets[i + 1] += this.offsets[i];
+        }
+
+        this.exporters = new int[exportCount];
+        this.versions = new Version[exportCount];
+        this.bundleCounts = new int[packageCount];
+        final int[] next = Arrays.copyOf(this.offsets, packageCount);
+        final int[] lastExporter = new int[packageCount];
+        Arrays.fill(lastExporter, NONE);
+        for (int i = 0; i < sdkEntries.size(); i++) {
+            for (final ExportPackage ep : sdkEntries.get(i).getExportPackage()) {
+                final int packageId = this.packages.find(ep.pkg());
+                final int position = next[packageId]++;
+                this.exporters[position] = i;
+                this.versions[position] = parseVersion(ep.version());
+                // A bundle can export the same package in several versions.
+                if (lastExporter[packageId] != i) {
+                    lastExporter[packageId] = i;
+                    this.bundleCounts[packageId]++;
+                }
+            }
+        }
+
+        for (int packageId = 0; packageId < packageCount; packageId++) {
+            sortExporters(this.offsets[packageId], this.offsets[packageId + 1]);
+        }
+    }
+
+    /**
+     * Sorts exporters of a package by version and then by bundle index.
+     */
+    private void sortExporters(final int from, final int to) {
+        if (to - from < 2) {
+            return;
+        }
+        final Integer[] order = new Integer[to - from];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = from + i;
+        }
+        Arrays.sort(order, Comparator.<Integer, Version>comparing(i -> this.versions[i])
+                .thenComparingInt(i -> this.exporters[i]));
+        final int[] sortedExporters = new int[order.length];
+        final Version[] sortedVersions = new Version[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedExporters[i] = this.exporters[order[i]];
+            sortedVersions[i] = this.versions[order[i]];
+        }
+        System.arraycopy(sortedExporters, 0, this.exporters, from, order.length);
+        System.arraycopy(sortedVersions, 0, this.versions, from, order.length);
+    }
+
+    /**
+     * @return ID of the package or {@link SymbolTable#NOT_FOUND} if no bundle exports it
+     */
+    int packageId(final String pkg) {
+        return this.packages.find(pkg);
+    }
+
+    /**
+     * @return number of distinct bundles exporting the package
+     */
+    int bundleCount(final int packageId) {
+        return this.bundleCounts[packageId];
+    }
+
+    /**
+     * @return index of the bundle exporting the package with the lowest version
+     */
+    int firstExporter(final int packageId) {
+        return this.exporters[this.offsets[packageId]];
+    }
+
+    /**
+     * @return index of the bundle exporting the highest version of the package within the range, the lowest index of
+     * such bundles if there are more of them, {@link #NONE} if no version within the range is exported
+     */
+    int bestExporter(final int packageId, final VersionRange range) {
+        final int from = this.offsets[packageId];
+        int best = lastPositionInRange(packageId, range);
+        if (best < from) {
+            return NONE;
+        }
+        while (best > from && this.versions[best - 1].equals(this.versions[best])) {
+            best--;
+        }
+        return this.exporters[best];
+    }
+
+    /**
+     * @return indexes of bundles exporting the package within the range, in the order of preference of
+     * {@link #bestExporter(int, VersionRange)}
+     */
+    int[] exportersInRange(final int packageId, final VersionRange range) {
+        final int from = this.offsets[packageId];
+        final int last = lastPositionInRange(packageId, range);
+        final int[] result = new int[Math.max(0, last - from + 1)];
+        int count = 0;
+        int groupEnd = last;
+        while (groupEnd >= from && range.includes(this.versions[groupEnd])) {
+            int groupStart = groupEnd;
+            while (groupStart > from && this.versions[groupStart - 1].equals(this.versions[groupEnd])) {
+                groupStart--;
+            }
+            for (int i = groupStart; i <= groupEnd; i++) {
+                result[count++] = this.exporters[i];
+            }
+            groupEnd = groupStart - 1;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * @return position of the highest exported version of the package within the range, a position before the
+     * exporters of the package if there is none
+     */
+    private int lastPositionInRange(final int packageId, final VersionRange range) {
+        final int from = this.offsets[packageId];
+        // Find the first exported version above the range.
+        int low = from;
+        int high = this.offsets[packageId + 1];
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (isAboveRange(this.versions[middle], range)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        final int last = low - 1;
+        return last >= from && range.includes(this.versions[last]) ? last : from - 1;
+    }
+
+    /**
+     * @return true if the bundle exports a version of the package within the range
+     */
+    boolean exportsInRange(final int packageId, final int bundle, final VersionRange range) {
+        for (int i = this.offsets[packageId]; i < this.offsets[packageId + 1]; i++) {
+            if (this.exporters[i] == bundle && range.includes(this.versions[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAboveRange(final Version version, final VersionRange range) {
+        final Version right = range.getRight();
+        if (right == null) {
+            return false;
+        }
+        final int cmp = version.compareTo(right);
+        return range.getRightType() == VersionRange.RIGHT_CLOSED ? cmp > 0 : cmp >= 0;
+    }
+
+    /**
+     * @return parsed version, {@link Version#emptyVersion} if it is missing or invalid
+     */
+    static Version parseVersion(final String version) {
+        if (version == null) {
+            return Version.emptyVersion;
+        }
+        try {
+            return Version.parseVersion(version);
+        } catch (final IllegalArgumentException e) {
+            LOGGER.debug("Invalid exported version {}: {}", version, e.getLocalizedMessage());
+            return Version.emptyVersion;
+        }
+    }
+
+    /**
+     * @return parsed version range, range of all versions if it is missing or invalid
+     */
+    static VersionRange parseVersionRange(final String versionRange) {
+        if (versionRange == null) {
+            return ANY_VERSION;
+        }
+        try {
+            return VersionRange.valueOf(versionRange);
+        } catch (final IllegalArgumentException e) {
+            LOGGER.debug("Invalid imported version range {}: {}", versionRange, e.getLocalizedMessage());
+            return ANY_VERSION;
+        }
+    }
+}
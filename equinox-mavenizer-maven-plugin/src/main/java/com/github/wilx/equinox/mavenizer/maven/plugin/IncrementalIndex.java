@@ -0,0 +1,309 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.DependencyType;
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.ExportPackage;
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.ImportPackage;
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.RequireBundle;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Persistent index of SDK archive entries which were already extracted and analyzed by a previous run. Entries are
+ * keyed by the SDK archive path, the entry name, its CRC-32 and its size. Extracted files are recorded with their
+ * modification time so that files changed since the previous run are not reused.
+ */
+final class IncrementalIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IncrementalIndex.class);
+    private static final int MAGIC = 0x45514d49;
+    private static final int FORMAT_VERSION = 3;
+    private static final long UNKNOWN_TIME = -1;
+
+    private final Path indexFile;
+    private final Map<Key, Record> records;
+    private final Map<Key, Record> usedRecords = new ConcurrentHashMap<>();
+
+    private IncrementalIndex(final Path indexFile, final Map<Key, Record> records) {
+        this.indexFile = indexFile;
+        this.records = records;
+    }
+
+    /**
+     * Loads index from a file. Missing, unreadable or incompatible index results in an empty index.
+     */
+    static IncrementalIndex load(final Path indexFile) {
+        final Map<Key, Record> records = new ConcurrentHashMap<>();
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOGGER.info("Ignoring incremental index {} with incompatible format", indexFile);
+            } else {
+                final int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    final Key key = new Key(in.readUTF(), in.readUTF(), in.readLong(), in.readLong());
+                    final String fileName = readNullableString(in);
+                    final long lastModified = fileName != null ? in.readLong() : UNKNOWN_TIME;
+                    final byte[] metadata = in.readBoolean() ? new byte[in.readInt()] : null;
+                    if (metadata != null) {
+                        in.readFully(metadata);
+                    }
+                    records.put(key, new Record(fileName, lastModified, metadata));
+                }
+            }
+        } catch (final NoSuchFileException e) {
+            LOGGER.debug("Incremental index {} does not exist yet", indexFile);
+        } catch (final IOException e) {
+            LOGGER.warn("Ignoring unreadable incremental index {}: {}", indexFile, e.getLocalizedMessage());
+            records.clear();
+        }
+        LOGGER.info("Loaded {} entries from incremental index {}", records.size(), indexFile);
+        return new IncrementalIndex(indexFile, records);
+    }
+
+    /**
+     * Saves entries used by this run. Entries of archive entries which were not seen by this run are dropped and their
+     * extracted files are deleted.
+     */
+    void save() throws IOException {
+        final Set<String> usedFileNames = new HashSet<>(this.usedRecords.size());
+        this.usedRecords.values().forEach(r -> usedFileNames.add(r.fileName()));
+        for (final Record record : this.records.values()) {
+            if (record.fileName() != null && !usedFileNames.contains(record.fileName())) {
+                LOGGER.debug("Deleting stale extracted file {}", record.fileName());
+                Files.deleteIfExists(this.indexFile.resolveSibling(record.fileName()));
+            }
+        }
+
+        final Path tmpFile = this.indexFile.resolveSibling(this.indexFile.getFileName() + ".tmp");
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(this.usedRecords.size());
+            for (final Map.Entry<Key, Record> entry : this.usedRecords.entrySet()) {
+                final Key key = entry.getKey();
+                out.writeUTF(key.archive());
+                out.writeUTF(key.entryName());
+                out.writeLong(key.crc());
+                out.writeLong(key.size());
+                final Record record = entry.getValue();
+                writeNullableString(out, record.fileName());
+                if (record.fileName() != null) {
+                    // Reused files are moved to their new names before saving, the time is read only now.
+                    out.writeLong(Files.getLastModifiedTime(this.indexFile.resolveSibling(record.fileName()))
+                            .toMillis());
+                }
+                out.writeBoolean(record.metadata() != null);
+                if (record.metadata() != null) {
+                    out.writeInt(record.metadata().length);
+                    out.write(record.metadata());
+                }
+            }
+        }
+        Files.move(tmpFile, this.indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Key keyOf(final Path sdkZipPath, final ZipArchiveEntry entry) {
+        return new Key(sdkZipPath.toAbsolutePath().normalize().toString(), entry.getName(), entry.getCrc(),
+                entry.getSize());
+    }
+
+    /**
+     * @return previously extracted file of the entry, if it still exists and has the expected size and either the
+     *     recorded modification time or the expected CRC-32
+     */
+    Path getExtractedFile(final Key key, final Path dir) {
+        final Record record = this.records.get(key);
+        if (record == null || record.fileName() == null) {
+            return null;
+        }
+        final Path file = dir.resolve(record.fileName());
+        try {
+            if (Files.size(file) != key.size()) {
+                return null;
+            }
+            if (Files.getLastModifiedTime(file).toMillis() == record.lastModified()) {
+                return file;
+            }
+            LOGGER.debug("Extracted file {} was modified, checking its CRC-32", file);
+            return key.crc() >= 0 && crc32(file) == key.crc() ? file : null;
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    private static long crc32(final Path file) throws IOException {
+        try (final CheckedInputStream in = new CheckedInputStream(Files.newInputStream(file), new CRC32())) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return in.getChecksum().getValue();
+        }
+    }
+
+    void putExtractedFile(final Key key, final Path file) {
+        final String fileName = file.getFileName().toString();
+        this.usedRecords.merge(key, new Record(fileName, UNKNOWN_TIME, null),
+                (o, n) -> new Record(fileName, UNKNOWN_TIME, o.metadata()));
+    }
+
+    /**
+     * Restores metadata of a bundle analyzed by a previous run.
+     *
+     * @return null if the bundle was not analyzed before, false if it has no BSN or is ignored, true otherwise
+     */
+    Boolean restoreMetadata(final Key key, final SdkEntry sdkEntry, final Set<String> ignoredBsns) {
+        final Record record = this.records.get(key);
+        if (record == null || record.metadata() == null) {
+            return null;
+        }
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.metadata()))) {
+            final String bsnHeader = readNullableString(in);
+            if (bsnHeader != null && ignoredBsns.contains(bsnHeader)) {
+                // Ignored bundles are not recorded, there is nothing to keep.
+                return false;
+            }
+            this.usedRecords.merge(key, new Record(null, UNKNOWN_TIME, record.metadata()),
+                    (o, n) -> new Record(o.fileName(), o.lastModified(), n.metadata()));
+            if (bsnHeader == null) {
+                return false;
+            }
+            readMetadata(in, sdkEntry);
+            return true;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records metadata of an analyzed bundle.
+     *
+     * @param bsnHeader raw value of Bundle-SymbolicName header, null if there is none
+     */
+    void putMetadata(final Key key, final String bsnHeader, final SdkEntry sdkEntry) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            writeNullableString(out, bsnHeader);
+            if (bsnHeader != null) {
+                writeMetadata(out, sdkEntry);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final byte[] metadata = bytes.toByteArray();
+        this.usedRecords.merge(key, new Record(null, UNKNOWN_TIME, metadata),
+                (o, n) -> new Record(o.fileName(), o.lastModified(), metadata));
+    }
+
+    private static void writeMetadata(final DataOutput out, final SdkEntry sdkEntry) throws IOException {
+        writeNullableString(out, sdkEntry.getBsn());
+        writeNullableString(out, sdkEntry.getName());
+        writeNullableString(out, sdkEntry.getDescription());
+        writeNullableString(out, sdkEntry.getFragmentHost());
+        out.writeBoolean(sdkEntry.isDSImpl());
+        out.writeBoolean(sdkEntry.isRequiresDS());
+        out.writeBoolean(sdkEntry.isServiceLoaderImpl());
+        out.writeBoolean(sdkEntry.isRequiresServiceLoader());
+        out.writeBoolean(sdkEntry.hasBundleActivator());
+
+        final Collection<RequireBundle> requireBundles = sdkEntry.getRequireBundle();
+        out.writeInt(requireBundles.size());
+        for (final RequireBundle rb : requireBundles) {
+            writeString(out, rb.bundle());
+            out.writeByte(rb.dependencyType().ordinal());
+        }
+        final Collection<ImportPackage> importPackages = sdkEntry.getImportPackage();
+        out.writeInt(importPackages.size());
+        for (final ImportPackage ip : importPackages) {
+            writeString(out, ip.pkg());
+            out.writeByte(ip.dependencyType().ordinal());
+            writeNullableString(out, ip.versionRange());
+        }
+        final Collection<ExportPackage> exportPackages = sdkEntry.getExportPackage();
+        out.writeInt(exportPackages.size());
+        for (final ExportPackage ep : exportPackages) {
+            writeString(out, ep.pkg());
+            writeNullableString(out, ep.version());
+        }
+    }
+
+    private static void readMetadata(final DataInput in, final SdkEntry sdkEntry) throws IOException {
+        final DependencyType[] dependencyTypes = DependencyType.values();
+        sdkEntry.setBsn(readNullableString(in));
+        sdkEntry.setName(readNullableString(in));
+        sdkEntry.setDescription(readNullableString(in));
+        sdkEntry.setFragmentHost(readNullableString(in));
+        sdkEntry.setDSImpl(in.readBoolean());
+        sdkEntry.setRequiresDS(in.readBoolean());
+        sdkEntry.setServiceLoaderImpl(in.readBoolean());
+        sdkEntry.setRequiresServiceLoader(in.readBoolean());
+        sdkEntry.setHasBundleActivator(in.readBoolean());
+
+        for (int i = in.readInt(); i > 0; i--) {
+            sdkEntry.addRequireBundle(readString(in), dependencyTypes[in.readByte()]);
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            sdkEntry.addImportPackage(readString(in), dependencyTypes[in.readByte()], readNullableString(in));
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            sdkEntry.addExportPackage(readString(in), readNullableString(in));
+        }
+    }
+
+    /**
+     * Writes a string without the 64 KiB limit of {@link DataOutput#writeUTF(String)}.
+     */
+    private static void writeString(final DataOutput out, final String str) throws IOException {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInput in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableString(final DataOutput out, final String str) throws IOException {
+        out.writeBoolean(str != null);
+        if (str != null) {
+            writeString(out, str);
+        }
+    }
+
+    private static String readNullableString(final DataInput in) throws IOException {
+        return in.readBoolean() ? readString(in) : null;
+    }
+
+    record Key(String archive, String entryName, long crc, long size) {
+    }
+
+    /**
+     * @param fileName name of the extracted file in the SDK artifacts directory, null if the entry was not extracted
+     * @param lastModified modification time of the extracted file in milliseconds, only known for loaded records
+     * @param metadata serialized metadata of the bundle, null if the bundle was not analyzed
+     */
+    private record Record(String fileName, long lastModified, byte[] metadata) {
+    }
+}
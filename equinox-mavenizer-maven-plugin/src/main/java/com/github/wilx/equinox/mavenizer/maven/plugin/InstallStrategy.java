@@ -0,0 +1,18 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+/**
+ * How extracted JARs get into the local repository.
+ */
+public enum InstallStrategy {
+    /**
+     * Let the repository system copy the files.
+     */
+    COPY,
+
+    /**
+     * Hard link the files into the local repository layout before installation, so that the repository system finds
+     * them unchanged and does not copy them. Falls back to copying when the local repository is on a different file
+     * system or the file system does not support hard links. POM files are always copied.
+     */
+    LINK
+}
@@ -0,0 +1,131 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events of the per-bundle steps of a mavenizer run. Events are recorded whenever a recording is
+ * running, either started by the mojo or by the JVM, for example with {@code -XX:StartFlightRecording}.
+ */
+final class MavenizerEvents {
+    private static final String CATEGORY = "Equinox Mavenizer";
+
+    private MavenizerEvents() {
+    }
+
+    @Name("com.github.wilx.equinox.mavenizer.Extract")
+    @Label("Extract")
+    @Description("Copying of a bundle or sources JAR out of an SDK archive")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Extract extends Event {
+        @Label("Artifact ID")
+        String artifactId;
+
+        @Label("Entry Name")
+        String entryName;
+
+        @Label("Compressed Size")
+        @DataAmount
+        long compressedBytes;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+
+    @Name("com.github.wilx.equinox.mavenizer.Analyze")
+    @Label("Analyze")
+    @Description("Parsing of a bundle manifest, from an extracted JAR or straight from an SDK archive")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Analyze extends Event {
+        @Label("Artifact ID")
+        String artifactId;
+
+        @Label("JAR Size")
+        @DataAmount
+        long bytes;
+
+        @Label("From Archive")
+        boolean fromArchive;
+
+        @Label("Analyzed")
+        @Description("False if the bundle is ignored")
+        boolean analyzed;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+
+    @Name("com.github.wilx.equinox.mavenizer.PomWrite")
+    @Label("POM Write")
+    @Description("Generation of the POM file of a bundle")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class PomWrite extends Event {
+        @Label("Artifact ID")
+        String artifactId;
+
+        @Label("Dependencies")
+        int dependencies;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+
+    @Name("com.github.wilx.equinox.mavenizer.Install")
+    @Label("Install")
+    @Description("Installation of a request with artifacts of one or more bundles into the local repository")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Install extends Event {
+        @Label("Artifact IDs")
+        String artifactIds;
+
+        @Label("Artifacts")
+        int artifacts;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+
+    @Name("com.github.wilx.equinox.mavenizer.Deploy")
+    @Label("Deploy")
+    @Description("Deployment of a request with artifacts of one or more bundles, including retries")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Deploy extends Event {
+        @Label("Artifact IDs")
+        String artifactIds;
+
+        @Label("Artifacts")
+        int artifacts;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Attempts")
+        int attempts;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+/**
+ * Observer of the phases of a mavenizer run. Phases run one after another, on the thread executing the mojo. A phase
+ * which fails is not finished. In multi-release mode, phases from {@link Phase#DEPENDENCIES} to {@link Phase#BOM} run
+ * once for each release.
+ */
+interface PhaseListener {
+    PhaseListener NONE = new PhaseListener() {
+    };
+
+    enum Phase {
+        /**
+         * Reading central directories of the SDK archives.
+         */
+        SCAN,
+        /**
+         * Copying bundle and sources JARs out of the SDK archives.
+         */
+        EXTRACT,
+        /**
+         * Parsing bundle manifests.
+         */
+        ANALYZE,
+        /**
+         * Resolving dependencies between bundles.
+         */
+        DEPENDENCIES,
+        /**
+         * Detecting dependency cycles.
+         */
+        CYCLES,
+        /**
+         * Generating POM files of bundles.
+         */
+        POMS,
+        /**
+         * Generating the BOM.
+         */
+        BOM,
+        /**
+         * Installing artifacts into the local repository.
+         */
+        INSTALL,
+        /**
+         * Deploying artifacts into the remote repository.
+         */
+        DEPLOY
+    }
+
+    default void phaseStarted(final Phase phase) {
+    }
+
+    /**
+     * @param entries number of bundles processed by the phase
+     */
+    default void phaseFinished(final Phase phase, final long entries) {
+    }
+}
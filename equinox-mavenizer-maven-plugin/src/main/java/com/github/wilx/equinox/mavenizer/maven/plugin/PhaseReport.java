@@ -0,0 +1,149 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Report of resources used by the phases of a mavenizer run, written as JSON and in OpenMetrics text format, so that
+ * the numbers can be tracked across builds. Phases which run several times, once for each release, are summed up.
+ * Values which are not available on the running JVM or operating system are left out.
+ */
+final class PhaseReport implements PhaseListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PhaseReport.class);
+    private static final String METRIC_PREFIX = "equinox_mavenizer_phase_";
+
+    private final Map<Phase, PhaseTotal> totals = new EnumMap<>(Phase.class);
+    private ResourceUsage phaseStart;
+
+    private static final class PhaseTotal {
+        private int runs;
+        private long entries;
+        private ResourceUsage usage = ResourceUsage.ZERO;
+    }
+
+    @Override
+    public void phaseStarted(final Phase phase) {
+        this.phaseStart = ResourceUsage.now();
+    }
+
+    @Override
+    public void phaseFinished(final Phase phase, final long entries) {
+        final ResourceUsage usage = ResourceUsage.now().since(this.phaseStart);
+        final PhaseTotal total = this.totals.computeIfAbsent(phase, p -> new PhaseTotal());
+        total.runs++;
+        total.entries += entries;
+        total.usage = total.usage.plus(usage);
+    }
+
+    void log() {
+        this.totals.forEach((phase, total) -> LOGGER.info(
+                "Phase {}: {} entries, wall {} ms, CPU {} ms, read {} bytes, written {} bytes, allocated {} bytes",
+                phaseName(phase), total.entries, TimeUnit.NANOSECONDS.toMillis(total.usage.wallNanos()),
+                millisOrUnavailable(total.usage.cpuNanos()), valueOrUnavailable(total.usage.readBytes()),
+                valueOrUnavailable(total.usage.writtenBytes()), valueOrUnavailable(total.usage.allocatedBytes())));
+    }
+
+    void writeJson(final Path path) throws IOException {
+        try (final BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("{\n  \"phases\": [");
+            String separator = "\n";
+            for (final Map.Entry<Phase, PhaseTotal> entry : this.totals.entrySet()) {
+                final PhaseTotal total = entry.getValue();
+                final ResourceUsage usage = total.usage;
+                writer.write(separator);
+                writer.write("    {\"phase\": \"" + phaseName(entry.getKey()) + "\", \"runs\": " + total.runs
+                        + ", \"entries\": " + total.entries + ", \"wallNanos\": " + usage.wallNanos());
+                writeJsonValue(writer, "cpuNanos", usage.cpuNanos());
+                writeJsonValue(writer, "readBytes", usage.readBytes());
+                writeJsonValue(writer, "writtenBytes", usage.writtenBytes());
+                writeJsonValue(writer, "allocatedBytes", usage.allocatedBytes());
+                writer.write('}');
+                separator = ",\n";
+            }
+            writer.write("\n  ]\n}\n");
+        }
+    }
+
+    private static void writeJsonValue(final BufferedWriter writer, final String name, final long value)
+            throws IOException {
+        if (value != ResourceUsage.UNAVAILABLE) {
+            writer.write(", \"" + name + "\": " + value);
+        }
+    }
+
+    void writeOpenMetrics(final Path path) throws IOException {
+        try (final BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeMetric(writer, "runs", null, "Number of times the phase ran.", total -> total.runs);
+            writeMetric(writer, "entries", null, "Number of bundles processed by the phase.", total -> total.entries);
+            writeSecondsMetric(writer, "wall", "Wall time of the phase.", ResourceUsage::wallNanos);
+            writeSecondsMetric(writer, "cpu", "CPU time of the process during the phase.", ResourceUsage::cpuNanos);
+            writeMetric(writer, "read_bytes", "bytes", "Bytes read by the process during the phase.",
+                    total -> total.usage.readBytes());
+            writeMetric(writer, "written_bytes", "bytes", "Bytes written by the process during the phase.",
+                    total -> total.usage.writtenBytes());
+            writeMetric(writer, "allocated_bytes", "bytes", "Heap allocated during the phase.",
+                    total -> total.usage.allocatedBytes());
+            writer.write("# EOF\n");
+        }
+    }
+
+    private void writeSecondsMetric(final BufferedWriter writer, final String name, final String help,
+            final ToLongFunction<ResourceUsage> nanos) throws IOException {
+        writeMetricFamily(writer, name + "_seconds", "seconds", help);
+        for (final Map.Entry<Phase, PhaseTotal> entry : this.totals.entrySet()) {
+            final long value = nanos.applyAsLong(entry.getValue().usage);
+            if (value != ResourceUsage.UNAVAILABLE) {
+                writeSample(writer, name + "_seconds", entry.getKey(),
+                        String.format(Locale.ROOT, "%.9f", value / 1e9));
+            }
+        }
+    }
+
+    private void writeMetric(final BufferedWriter writer, final String name, final String unit, final String help,
+            final ToLongFunction<PhaseTotal> value) throws IOException {
+        writeMetricFamily(writer, name, unit, help);
+        for (final Map.Entry<Phase, PhaseTotal> entry : this.totals.entrySet()) {
+            final long sample = value.applyAsLong(entry.getValue());
+            if (sample != ResourceUsage.UNAVAILABLE) {
+                writeSample(writer, name, entry.getKey(), Long.toString(sample));
+            }
+        }
+    }
+
+    private static void writeMetricFamily(final BufferedWriter writer, final String name, final String unit,
+            final String help) throws IOException {
+        writer.write("# TYPE " + METRIC_PREFIX + name + " gauge\n");
+        if (unit != null) {
+            writer.write("# UNIT " + METRIC_PREFIX + name + " " + unit + "\n");
+        }
+        writer.write("# HELP " + METRIC_PREFIX + name + " " + help + "\n");
+    }
+
+    private static void writeSample(final BufferedWriter writer, final String name, final Phase phase,
+            final String value) throws IOException {
+        writer.write(METRIC_PREFIX + name + "{phase=\"" + phaseName(phase) + "\"} " + value + "\n");
+    }
+
+    private static String phaseName(final Phase phase) {
+        return phase.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static Object millisOrUnavailable(final long nanos) {
+        return nanos == ResourceUsage.UNAVAILABLE ? "n/a" : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static Object valueOrUnavailable(final long value) {
+        return value == ResourceUsage.UNAVAILABLE ? "n/a" : value;
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Streaming writer of POM files. The fixed parts of the POM are written directly, without an XML stream writer. Element
+ * content is escaped and elements are indented the same way as by {@code IndentingXMLStreamWriter} on top of the JDK
+ * XML stream writer, which this class replaces: each element starts on a new line, indented by its depth, and an end
+ * tag goes on a new line only if the element contains other elements and no text was written after them.
+ */
+final class PomWriter implements Flushable {
+    private static final String INDENT = "  ";
+    private static final String PREAMBLE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\""
+            + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+            + " xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 https://maven.apache.org/xsd/maven-4.0.0.xsd\">"
+            + "\n  <modelVersion>4.0.0</modelVersion>\n";
+
+    private enum State {
+        SEEN_NOTHING, SEEN_ELEMENT, SEEN_DATA
+    }
+
+    private final Writer writer;
+    private final Deque<String> elements = new ArrayDeque<>();
+    private State state = State.SEEN_NOTHING;
+
+    PomWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes XML declaration, start of the project element and the model version.
+     */
+    void startProject() throws IOException {
+        this.writer.write(PREAMBLE);
+        this.elements.push("project");
+        this.state = State.SEEN_DATA;
+    }
+
+    /**
+     * Ends the project element and all other elements still open.
+     */
+    void endProject() throws IOException {
+        while (!this.elements.isEmpty()) {
+            endElement();
+        }
+    }
+
+    void startElement(final String name) throws IOException {
+        final int depth = this.elements.size();
+        if (depth > 0) {
+            this.writer.write('\n');
+        }
+        for (int i = 0; i < depth; i++) {
+            this.writer.write(INDENT);
+        }
+        this.writer.write('<');
+        this.writer.write(name);
+        this.writer.write('>');
+        this.elements.push(name);
+        this.state = State.SEEN_NOTHING;
+    }
+
+    void endElement() throws IOException {
+        final String name = this.elements.pop();
+        if (this.state == State.SEEN_ELEMENT) {
+            this.writer.write('\n');
+            for (int i = 0; i < this.elements.size(); i++) {
+                this.writer.write(INDENT);
+            }
+        }
+        this.writer.write("</");
+        this.writer.write(name);
+        this.writer.write('>');
+        this.state = State.SEEN_ELEMENT;
+    }
+
+    /**
+     * Writes element containing only text.
+     */
+    void element(final String name, final String text) throws IOException {
+        startElement(name);
+        characters(text);
+        endElement();
+    }
+
+    /**
+     * Writes escaped text. Missing text is written as empty.
+     */
+    void characters(final String text) throws IOException {
+        this.state = State.SEEN_DATA;
+        if (text == null) {
+            return;
+        }
+        int written = 0;
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            final String escaped;
+            switch (text.charAt(i)) {
+                case '<':
+                    escaped = "&lt;";
+                    break;
+                case '>':
+                    escaped = "&gt;";
+                    break;
+                case '&':
+                    escaped = "&amp;";
+                    break;
+                default:
+                    continue;
+            }
+            this.writer.write(text, written, i - written);
+            this.writer.write(escaped);
+            written = i + 1;
+        }
+        this.writer.write(text, written, length - written);
+    }
+
+    void newLine() throws IOException {
+        characters("\n");
+    }
+
+    /**
+     * Writes comment, as it is, on the current line.
+     */
+    void comment(final String text) throws IOException {
+        this.writer.write("<!--");
+        this.writer.write(text);
+        this.writer.write("-->");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * SDK release mavenized together with other releases in a single run. Each release gets its own BOM, with the release
+ * ID as its version, and dependencies of its bundles are resolved among the bundles of the release only.
+ */
+public class Release {
+    /**
+     * ID of the release, used as version of its BOM.
+     */
+    private String id;
+
+    /**
+     * SDK archives of the release. The first archive containing a bundle wins.
+     */
+    private List<File> equinoxSdkZipFiles;
+
+    public String getId() {
+        return this.id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public List<File> getEquinoxSdkZipFiles() {
+        return this.equinoxSdkZipFiles;
+    }
+
+    public void setEquinoxSdkZipFiles(final List<File> equinoxSdkZipFiles) {
+        this.equinoxSdkZipFiles = equinoxSdkZipFiles;
+    }
+
+    @Override
+    public String toString() {
+        return this.id;
+    }
+}
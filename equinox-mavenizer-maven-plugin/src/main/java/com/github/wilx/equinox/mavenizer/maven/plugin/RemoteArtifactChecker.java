@@ -0,0 +1,126 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.checksum.ChecksumAlgorithmFactory;
+import org.eclipse.aether.spi.connector.checksum.ChecksumAlgorithmHelper;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayout;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutProvider;
+import org.eclipse.aether.spi.connector.transport.GetTask;
+import org.eclipse.aether.spi.connector.transport.Transporter;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transfer.NoRepositoryLayoutException;
+import org.eclipse.aether.transfer.NoTransporterException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Checks whether artifacts are already present in a remote repository by fetching their checksum files and comparing
+ * them with checksums of local files. The checks are thread safe.
+ */
+final class RemoteArtifactChecker implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteArtifactChecker.class);
+
+    /**
+     * State of an artifact in the remote repository.
+     */
+    enum RemoteState {
+        /**
+         * The remote repository contains the artifact with the same checksum as its local file.
+         */
+        IDENTICAL,
+        /**
+         * The remote repository contains the artifact with different content. This is logged as a warning.
+         */
+        DIFFERENT,
+        /**
+         * The remote repository does not contain the artifact, or it could not be found out.
+         */
+        UNKNOWN
+    }
+
+    private final RemoteRepository remoteRepository;
+    private final RepositoryLayout layout;
+    private final Transporter transporter;
+
+    RemoteArtifactChecker(final RepositoryLayoutProvider repositoryLayoutProvider,
+            final TransporterProvider transporterProvider, final RepositorySystemSession session,
+            final RemoteRepository remoteRepository) throws NoRepositoryLayoutException, NoTransporterException {
+        this.remoteRepository = remoteRepository;
+        this.layout = repositoryLayoutProvider.newRepositoryLayout(session, remoteRepository);
+        this.transporter = transporterProvider.newTransporter(session, remoteRepository);
+    }
+
+    /**
+     * @return true if the remote repository contains the artifact with the same checksum as its local file; failures
+     * to find out are logged and reported as the artifact not being present
+     */
+    boolean isDeployedIdentical(final Artifact artifact) {
+        return check(artifact) == RemoteState.IDENTICAL;
+    }
+
+    /**
+     * @return state of the artifact in the remote repository; failures to find out are logged and reported as
+     * {@link RemoteState#UNKNOWN}
+     */
+    RemoteState check(final Artifact artifact) {
+        if (!this.layout.hasChecksums(artifact)) {
+            return RemoteState.UNKNOWN;
+        }
+        final URI location = this.layout.getLocation(artifact, true);
+        for (final RepositoryLayout.ChecksumLocation checksumLocation
+                : this.layout.getChecksumLocations(artifact, true, location)) {
+            final ChecksumAlgorithmFactory factory = checksumLocation.getChecksumAlgorithmFactory();
+            final String remoteChecksum;
+            try {
+                final GetTask task = new GetTask(checksumLocation.getLocation());
+                this.transporter.get(task);
+                remoteChecksum = parseChecksum(task.getDataString());
+            } catch (final Exception e) {
+                if (this.transporter.classify(e) == Transporter.ERROR_NOT_FOUND) {
+                    continue;
+                }
+                LOGGER.warn("Failed to fetch {} checksum of {} from {}: {}", factory.getName(), artifact,
+                        this.remoteRepository.getUrl(), e.getLocalizedMessage());
+                LOGGER.debug("Exception", e);
+                return RemoteState.UNKNOWN;
+            }
+
+            try {
+                final String localChecksum = ChecksumAlgorithmHelper.calculate(artifact.getFile(), List.of(factory))
+                        .get(factory.getName());
+                if (!localChecksum.equalsIgnoreCase(remoteChecksum)) {
+                    LOGGER.warn("{} already exists in {} with different content", artifact,
+                            this.remoteRepository.getUrl());
+                    return RemoteState.DIFFERENT;
+                }
+                return RemoteState.IDENTICAL;
+            } catch (final Exception e) {
+                LOGGER.warn("Failed to compute {} checksum of {}: {}", factory.getName(), artifact.getFile(),
+                        e.getLocalizedMessage());
+                LOGGER.debug("Exception", e);
+                return RemoteState.UNKNOWN;
+            }
+        }
+        return RemoteState.UNKNOWN;
+    }
+
+    /**
+     * Checksum files contain the hex encoded checksum, possibly followed by the file name.
+     */
+    private static String parseChecksum(final String content) {
+        final String trimmed = content.trim();
+        final int space = trimmed.indexOf(' ');
+        return space == -1 ? trimmed : trimmed.substring(0, space);
+    }
+
+    @Override
+    public void close() {
+        this.transporter.close();
+    }
+}
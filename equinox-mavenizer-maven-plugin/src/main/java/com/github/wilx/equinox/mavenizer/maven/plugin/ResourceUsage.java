@@ -0,0 +1,113 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resources used by the JVM process, as far as the JVM and the operating system expose them. Values which are not
+ * available are {@link #UNAVAILABLE}.
+ *
+ * @param wallNanos      monotonic wall clock time
+ * @param cpuNanos       CPU time of the whole process
+ * @param readBytes      bytes read by the process through system calls, on Linux only
+ * @param writtenBytes   bytes written by the process through system calls, on Linux only
+ * @param allocatedBytes heap allocated by the current thread and by worker tasks which have finished
+ */
+record ResourceUsage(long wallNanos, long cpuNanos, long readBytes, long writtenBytes, long allocatedBytes) {
+    static final long UNAVAILABLE = -1;
+    static final ResourceUsage ZERO = new ResourceUsage(0, 0, 0, 0, 0);
+
+    private static final Path PROC_SELF_IO = Path.of("/proc/self/io");
+    private static final LongAdder FINISHED_TASKS_ALLOCATED_BYTES = new LongAdder();
+
+    static ResourceUsage now() {
+        final long wallNanos = System.nanoTime();
+        long readBytes = UNAVAILABLE;
+        long writtenBytes = UNAVAILABLE;
+        try {
+            if (Files.isReadable(PROC_SELF_IO)) {
+                final List<String> lines = Files.readAllLines(PROC_SELF_IO, StandardCharsets.US_ASCII);
+                readBytes = procIoValue(lines, "rchar: ");
+                writtenBytes = procIoValue(lines, "wchar: ");
+            }
+        } catch (final IOException | NumberFormatException e) {
+            // Leave the I/O counters unavailable.
+        }
+        final long allocatedBytes = currentThreadAllocatedBytes();
+        return new ResourceUsage(wallNanos, processCpuNanos(), readBytes, writtenBytes,
+                allocatedBytes == UNAVAILABLE
+                        ? UNAVAILABLE
+                        : allocatedBytes + FINISHED_TASKS_ALLOCATED_BYTES.sum());
+    }
+
+    /**
+     * Wraps a task run by a worker thread so that heap allocated by the task is recorded when the task finishes, before
+     * its result is available to the thread waiting for it.
+     */
+    static <T> Callable<T> countingAllocations(final Callable<T> task) {
+        return () -> {
+            final long start = currentThreadAllocatedBytes();
+            try {
+                return task.call();
+            } finally {
+                final long end = currentThreadAllocatedBytes();
+                if (start != UNAVAILABLE && end != UNAVAILABLE) {
+                    FINISHED_TASKS_ALLOCATED_BYTES.add(end - start);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return resources used between the start and this usage
+     */
+    ResourceUsage since(final ResourceUsage start) {
+        return new ResourceUsage(this.wallNanos - start.wallNanos, difference(this.cpuNanos, start.cpuNanos),
+                difference(this.readBytes, start.readBytes), difference(this.writtenBytes, start.writtenBytes),
+                difference(this.allocatedBytes, start.allocatedBytes));
+    }
+
+    ResourceUsage plus(final ResourceUsage other) {
+        return new ResourceUsage(this.wallNanos + other.wallNanos, sum(this.cpuNanos, other.cpuNanos),
+                sum(this.readBytes, other.readBytes), sum(this.writtenBytes, other.writtenBytes),
+                sum(this.allocatedBytes, other.allocatedBytes));
+    }
+
+    private static long difference(final long end, final long start) {
+        return end == UNAVAILABLE || start == UNAVAILABLE ? UNAVAILABLE : end - start;
+    }
+
+    private static long sum(final long a, final long b) {
+        return a == UNAVAILABLE || b == UNAVAILABLE ? UNAVAILABLE : a + b;
+    }
+
+    private static long procIoValue(final List<String> lines, final String prefix) {
+        for (final String line : lines) {
+            if (line.startsWith(prefix)) {
+                return Long.parseLong(line.substring(prefix.length()).trim());
+            }
+        }
+        return UNAVAILABLE;
+    }
+
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        return UNAVAILABLE;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+            && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return UNAVAILABLE;
+    }
+}
@@ -6,8 +6,14 @@ import java.util.Comparator;
 import java.util.Set;
 import java.util.TreeSet;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 
 class SdkEntry {
+    /**
+     * SDK archive the entries below come from.
+     */
+    Path sdkZipPath;
+    ZipFile sdkZipFile;
     ZipArchiveEntry artifactEntry;
     ZipArchiveEntry sourcesEntry;
     String artifactId;
@@ -29,13 +35,16 @@ class SdkEntry {
                     .thenComparing(Dependency::dependencyType));
     String description;
     String name;
-    final Set<ImportPackage> importPackage = new TreeSet<>(
+    final CompactSortedSet<ImportPackage> importPackage = new CompactSortedSet<>(
             Comparator.comparing(ImportPackage::pkg)
-                    .thenComparing(ImportPackage::dependencyType));
-    final Set<RequireBundle> requireBundle = new TreeSet<>(
+                    .thenComparing(ImportPackage::dependencyType)
+                    .thenComparing(ImportPackage::versionRange, Comparator.nullsFirst(Comparator.naturalOrder())));
+    final CompactSortedSet<RequireBundle> requireBundle = new CompactSortedSet<>(
             Comparator.comparing(RequireBundle::bundle)
                     .thenComparing(RequireBundle::dependencyType));
-    final Set<String> exportPackage = new TreeSet<>();
+    final CompactSortedSet<ExportPackage> exportPackage = new CompactSortedSet<>(
+            Comparator.comparing(ExportPackage::pkg)
+                    .thenComparing(ExportPackage::version, Comparator.nullsFirst(Comparator.naturalOrder())));
     String bsn;
     String fragmentHost;
 
@@ -44,6 +53,22 @@ class SdkEntry {
         this.version = version;
     }
 
+    public Path getSdkZipPath() {
+        return this.sdkZipPath;
+    }
+
+    public void setSdkZipPath(final Path sdkZipPath) {
+        this.sdkZipPath = sdkZipPath;
+    }
+
+    public ZipFile getSdkZipFile() {
+        return this.sdkZipFile;
+    }
+
+    public void setSdkZipFile(final ZipFile sdkZipFile) {
+        this.sdkZipFile = sdkZipFile;
+    }
+
     public ZipArchiveEntry getArtifactEntry() {
         return this.artifactEntry;
     }
@@ -115,6 +140,16 @@ class SdkEntry {
         return this.dependencies;
     }
 
+    public void setDependencies(final Collection<Dependency> dependencies) {
+        this.dependencies.clear();
+        this.dependencies.addAll(dependencies);
+    }
+
+    public boolean hasDependency(final String artifactId) {
+        return this.dependencies.contains(new Dependency(artifactId, DependencyType.NORMAL))
+                || this.dependencies.contains(new Dependency(artifactId, DependencyType.OPTIONAL));
+    }
+
     public Path getPomFile() {
         return this.pomFile;
     }
@@ -143,8 +178,11 @@ class SdkEntry {
         return this.importPackage;
     }
 
-    public void addImportPackage(final String ip, final DependencyType type) {
-        this.importPackage.add(new ImportPackage(ip, type));
+    /**
+     * @param versionRange value of the version attribute, null if there is none
+     */
+    public void addImportPackage(final String ip, final DependencyType type, final String versionRange) {
+        this.importPackage.add(new ImportPackage(ip, type, versionRange));
     }
 
     public Set<RequireBundle> getRequireBundle() {
@@ -155,12 +193,15 @@ class SdkEntry {
         this.requireBundle.add(new RequireBundle(bundle, type));
     }
 
-    public Set<String> getExportPackage() {
+    public Set<ExportPackage> getExportPackage() {
         return this.exportPackage;
     }
 
-    public void addExportPackage(final String ep) {
-        this.exportPackage.add(ep);
+    /**
+     * @param version value of the version attribute, null if there is none
+     */
+    public void addExportPackage(final String ep, final String version) {
+        this.exportPackage.add(new ExportPackage(ep, version));
     }
 
     public String getBsn() {
@@ -219,6 +260,37 @@ class SdkEntry {
         this.hasBundleActivator = hasBundleActivator;
     }
 
+    /**
+     * Replaces the sets of imported and exported packages and required bundles with arrays and replaces names and
+     * versions with their instances from the symbol table, shared by all entries. Nothing can be added to the sets
+     * afterward. This is called once the bundle is analyzed.
+     */
+    public void compact(final SymbolTable symbols) {
+        // Artifact ID goes first so that the usually equal BSN shares its instance.
+        this.artifactId = symbols.canonical(this.artifactId);
+        this.bsn = canonical(symbols, this.bsn);
+        this.fragmentHost = canonical(symbols, this.fragmentHost);
+        this.importPackage.compact(ip -> new ImportPackage(symbols.canonical(ip.pkg()), ip.dependencyType(),
+                canonical(symbols, ip.versionRange())));
+        this.requireBundle.compact(rb -> new RequireBundle(symbols.canonical(rb.bundle()), rb.dependencyType()));
+        this.exportPackage.compact(ep -> new ExportPackage(symbols.canonical(ep.pkg()),
+                canonical(symbols, ep.version())));
+    }
+
+    private static String canonical(final SymbolTable symbols, final String symbol) {
+        return symbol != null ? symbols.canonical(symbol) : null;
+    }
+
+    /**
+     * Drops references to the SDK archive and its entries, so that the central directory of the archive can be
+     * garbage collected. This is called once the bundle is extracted and analyzed.
+     */
+    public void releaseArchive() {
+        this.sdkZipFile = null;
+        this.artifactEntry = null;
+        this.sourcesEntry = null;
+    }
+
     public boolean isRequiresStart() {
         return this.isDSImpl || this.requiresDS || this.hasBundleActivator || this.isServiceLoaderImpl || this.requiresServiceLoader;
     }
@@ -231,7 +303,10 @@ class SdkEntry {
     public record Dependency (String artifactId, DependencyType dependencyType)
     { }
 
-    public record ImportPackage (String pkg, DependencyType dependencyType)
+    public record ImportPackage (String pkg, DependencyType dependencyType, String versionRange)
+    { }
+
+    public record ExportPackage (String pkg, String version)
     { }
 
     public record RequireBundle (String bundle, DependencyType dependencyType)
@@ -0,0 +1,74 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table of interned symbols, such as package names. Each symbol is identified by a dense int ID, starting at zero, so
+ * that per-symbol data can be kept in plain arrays indexed by the ID. Lookups, including interning of a symbol which
+ * is already in the table, are lock free and can run concurrently with interning.
+ */
+final class SymbolTable {
+    static final int NOT_FOUND = -1;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<String> symbols = new ArrayList<>();
+
+    /**
+     * @return ID of the symbol, newly assigned if the symbol was not interned before
+     */
+    int intern(final String symbol) {
+        return entry(symbol).id();
+    }
+
+    /**
+     * Interns the symbol, so that all equal strings passed in can share a single instance.
+     *
+     * @return the instance of the symbol kept by the table
+     */
+    String canonical(final String symbol) {
+        return entry(symbol).symbol();
+    }
+
+    private Entry entry(final String symbol) {
+        final Entry entry = this.entries.get(symbol);
+        if (entry != null) {
+            return entry;
+        }
+        synchronized (this.symbols) {
+            return this.entries.computeIfAbsent(symbol, s -> {
+                this.symbols.add(s);
+                return new Entry(s, this.symbols.size() - 1);
+            });
+        }
+    }
+
+    /**
+     * @return ID of the symbol or {@link #NOT_FOUND} if the symbol was not interned
+     */
+    int find(final String symbol) {
+        final Entry entry = this.entries.get(symbol);
+        return entry != null ? entry.id() : NOT_FOUND;
+    }
+
+    String symbol(final int id) {
+        synchronized (this.symbols) {
+            return this.symbols.get(id);
+        }
+    }
+
+    int size() {
+        synchronized (this.symbols) {
+            return this.symbols.size();
+        }
+    }
+
+    /**
+     * @param symbol instance of the symbol kept by the table
+     * @param id     ID of the symbol
+     */
+    private record Entry(String symbol, int id) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.RepositoryException;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.metadata.AbstractMetadata;
+import org.eclipse.aether.metadata.MergeableMetadata;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Group and artifact level {@code maven-metadata.xml} listing a version of an artifact. The resolver merges it into the
+ * metadata of the remote repository when it is deployed, the same way it merges metadata generated for deployed
+ * artifacts. This allows updating metadata of artifacts uploaded by an earlier, failed deployment without uploading the
+ * artifacts again.
+ */
+final class VersionMetadata extends AbstractMetadata implements MergeableMetadata {
+    private static final String MAVEN_METADATA_XML = "maven-metadata.xml";
+
+    private final String groupId;
+    private final String artifactId;
+    private final String version;
+    private final Nature nature;
+    private File file;
+    private boolean merged;
+
+    VersionMetadata(final Artifact artifact) {
+        this(artifact.getGroupId(), artifact.getArtifactId(), artifact.getBaseVersion(),
+                artifact.isSnapshot() ? Nature.SNAPSHOT : Nature.RELEASE);
+    }
+
+    private VersionMetadata(final String groupId, final String artifactId, final String version, final Nature nature) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.nature = nature;
+    }
+
+    /**
+     * The resolver merges metadata into a local copy of the remote metadata and skips the merge for metadata merged
+     * before. A failed deployment has to be retried with a copy, so that it is merged into the current remote
+     * metadata.
+     *
+     * @return metadata listing the same version, not merged yet
+     */
+    VersionMetadata copy() {
+        return new VersionMetadata(this.groupId, this.artifactId, this.version, this.nature);
+    }
+
+    @Override
+    public void merge(final File current, final File result) throws RepositoryException {
+        final Metadata metadata;
+        try {
+            metadata = current.isFile() ? read(current) : new Metadata();
+            metadata.setGroupId(this.groupId);
+            metadata.setArtifactId(this.artifactId);
+            if (metadata.getVersioning() == null) {
+                metadata.setVersioning(new Versioning());
+            }
+            final Versioning versioning = metadata.getVersioning();
+            if (!versioning.getVersions().contains(this.version)) {
+                versioning.addVersion(this.version);
+            }
+            if (this.nature == Nature.RELEASE) {
+                versioning.setRelease(this.version);
+            }
+            versioning.setLastUpdatedTimestamp(new Date());
+            Files.createDirectories(result.toPath().toAbsolutePath().getParent());
+            try (final OutputStream out = Files.newOutputStream(result.toPath())) {
+                new MetadataXpp3Writer().write(out, metadata);
+            }
+        } catch (final IOException | XmlPullParserException e) {
+            throw new RepositoryException("Failed to merge " + this + " into " + current + ": " + e.getMessage(), e);
+        }
+        this.file = result;
+        this.merged = true;
+    }
+
+    private static Metadata read(final File file) throws IOException, XmlPullParserException {
+        try (final InputStream in = Files.newInputStream(file.toPath())) {
+            return new MetadataXpp3Reader().read(in, false);
+        }
+    }
+
+    /**
+     * @return version listed by the metadata
+     */
+    String getDeployedVersion() {
+        return this.version;
+    }
+
+    @Override
+    public boolean isMerged() {
+        return this.merged;
+    }
+
+    @Override
+    public String getGroupId() {
+        return this.groupId;
+    }
+
+    @Override
+    public String getArtifactId() {
+        return this.artifactId;
+    }
+
+    /**
+     * @return empty version, the metadata belong to the group and artifact
+     */
+    @Override
+    public String getVersion() {
+        return "";
+    }
+
+    @Override
+    public String getType() {
+        return MAVEN_METADATA_XML;
+    }
+
+    @Override
+    public Nature getNature() {
+        return this.nature;
+    }
+
+    @Override
+    public File getFile() {
+        return this.file;
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed size pool of daemon worker threads used to run independent per-bundle tasks.
+ */
+final class WorkerPool implements AutoCloseable {
+    private final ExecutorService executor;
+
+    WorkerPool(final String name, final int threads) {
+        this.executor = Executors.newFixedThreadPool(effectiveThreads(threads), new NamedThreadFactory(name));
+    }
+
+    /**
+     * @param threads configured number of threads
+     * @return {@code threads} if positive, otherwise number of available processors
+     */
+    static int effectiveThreads(final int threads) {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    <T> Future<T> submit(final Callable<T> task) {
+        return this.executor.submit(ResourceUsage.countingAllocations(task));
+    }
+
+    /**
+     * Runs all tasks and waits for them to finish. The first failure, in the order of the tasks, cancels the rest of
+     * the tasks and is rethrown.
+     *
+     * @param tasks tasks to run
+     * @return results of the tasks in the order of the tasks
+     */
+    <T> List<T> runAll(final Collection<? extends Callable<T>> tasks) throws MojoExecutionException, MojoFailureException {
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            futures.add(submit(task));
+        }
+        return awaitAll(futures);
+    }
+
+    static <T> List<T> awaitAll(final List<Future<T>> futures) throws MojoExecutionException, MojoFailureException {
+        final List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (final Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException(e.getMessage(), e);
+        } catch (final ExecutionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+        return results;
+    }
+
+    private static MojoExecutionException unwrap(final Throwable cause) throws MojoFailureException {
+        if (cause instanceof MojoFailureException mfe) {
+            throw mfe;
+        } else if (cause instanceof MojoExecutionException mee) {
+            return mee;
+        } else if (cause instanceof Error error) {
+            throw error;
+        }
+        return new MojoExecutionException(cause.getMessage(), cause);
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r,
+                    "equinox-mavenizer-" + this.name + "-" + this.counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
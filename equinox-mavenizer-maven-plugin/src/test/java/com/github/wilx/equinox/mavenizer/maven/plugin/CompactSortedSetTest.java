@@ -0,0 +1,68 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactSortedSetTest {
+    @Test
+    void keepsElementsSortedAndDistinct() {
+        final CompactSortedSet<String> set = new CompactSortedSet<>(Comparator.naturalOrder());
+        assertTrue(set.add("c"));
+        assertTrue(set.add("a"));
+        assertFalse(set.add("c"));
+        assertTrue(set.add("b"));
+        assertEquals(List.of("a", "b", "c"), new ArrayList<>(set));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void compactKeepsOrderAndAppliesCanonicalizer() {
+        final CompactSortedSet<String> set = new CompactSortedSet<>(Comparator.naturalOrder());
+        set.add("b");
+        set.add("a");
+        set.compact(s -> s.toUpperCase(Locale.ROOT));
+        assertEquals(List.of("A", "B"), new ArrayList<>(set));
+        assertEquals(2, set.size());
+        assertTrue(set.contains("A"));
+        assertFalse(set.contains("a"));
+    }
+
+    @Test
+    void compactedSetIsReadOnly() {
+        final CompactSortedSet<String> set = new CompactSortedSet<>(Comparator.naturalOrder());
+        set.add("a");
+        set.compact(UnaryOperator.identity());
+        assertThrows(IllegalStateException.class, () -> set.add("b"));
+        final Iterator<String> iterator = set.iterator();
+        iterator.next();
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+    }
+
+    @Test
+    void compactingTwiceDoesNothing() {
+        final CompactSortedSet<String> set = new CompactSortedSet<>(Comparator.naturalOrder());
+        set.add("a");
+        set.compact(s -> s + "1");
+        set.compact(s -> s + "2");
+        assertEquals(List.of("a1"), new ArrayList<>(set));
+    }
+
+    @Test
+    void compactsEmptySet() {
+        final CompactSortedSet<String> set = new CompactSortedSet<>(Comparator.naturalOrder());
+        set.compact(UnaryOperator.identity());
+        assertTrue(set.isEmpty());
+        assertFalse(set.iterator().hasNext());
+    }
+}
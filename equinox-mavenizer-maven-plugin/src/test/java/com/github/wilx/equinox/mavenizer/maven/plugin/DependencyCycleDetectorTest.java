@@ -0,0 +1,83 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DependencyCycleDetectorTest {
+    /**
+     * Graph with a component of a triangle a, b, c with a shortcut c to b, a component of two bundles d and e, a
+     * bundle f depending on itself and bundles g and h outside of any cycle.
+     */
+    private static Graph<String, DefaultEdge> knownGraph() {
+        final Graph<String, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        for (final String[] edge : new String[][] {
+                {"a", "b"}, {"b", "c"}, {"c", "a"}, {"c", "b"},
+                {"d", "e"}, {"e", "d"},
+                {"f", "f"},
+                {"g", "a"}, {"g", "h"}, {"e", "h"}}) {
+            Graphs.addEdgeWithVertices(graph, edge[0], edge[1]);
+        }
+        return graph;
+    }
+
+    @Test
+    void reportsComponentsShortestCyclesAndSimpleCycles() {
+        final DependencyCycleDetector.Report report = new DependencyCycleDetector(knownGraph(), 100, 10_000)
+                .detect();
+
+        assertTrue(report.hasCycles());
+        assertEquals(List.of(new TreeSet<>(List.of("a", "b", "c")), new TreeSet<>(List.of("d", "e")),
+                new TreeSet<>(List.of("f"))), report.components());
+        assertEquals(List.of(List.of("b", "c", "b"), List.of("d", "e", "d"), List.of("f", "f")),
+                report.shortestCycles());
+
+        final Set<Set<String>> cycles = new HashSet<>();
+        report.cycles().forEach(cycle -> cycles.add(new HashSet<>(cycle)));
+        assertEquals(4, report.cycles().size());
+        assertEquals(Set.of(Set.of("a", "b", "c"), Set.of("b", "c"), Set.of("d", "e"), Set.of("f")), cycles);
+        assertTrue(report.complete());
+    }
+
+    @Test
+    void shortestCycleIsShorterThanCycleThroughFirstVertex() {
+        final Graph<String, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        for (final String[] edge : new String[][] {{"a", "b"}, {"b", "c"}, {"c", "d"}, {"d", "a"}, {"c", "b"}}) {
+            Graphs.addEdgeWithVertices(graph, edge[0], edge[1]);
+        }
+        final DependencyCycleDetector.Report report = new DependencyCycleDetector(graph, 100, 10_000).detect();
+        assertEquals(List.of(List.of("b", "c", "b")), report.shortestCycles());
+    }
+
+    @Test
+    void limitsEnumeratedCycles() {
+        final DependencyCycleDetector.Report report = new DependencyCycleDetector(knownGraph(), 2, 10_000).detect();
+        assertEquals(3, report.components().size());
+        assertEquals(3, report.shortestCycles().size());
+        assertEquals(2, report.cycles().size());
+        assertFalse(report.complete());
+    }
+
+    @Test
+    void acyclicGraphHasNoCycles() {
+        final Graph<String, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        for (final String[] edge : new String[][] {{"a", "b"}, {"b", "c"}, {"a", "c"}}) {
+            Graphs.addEdgeWithVertices(graph, edge[0], edge[1]);
+        }
+        final DependencyCycleDetector.Report report = new DependencyCycleDetector(graph, 100, 10_000).detect();
+        assertFalse(report.hasCycles());
+        assertTrue(report.cycles().isEmpty());
+        assertTrue(report.complete());
+    }
+}
@@ -0,0 +1,203 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutProvider;
+import org.eclipse.aether.spi.connector.transport.GetTask;
+import org.eclipse.aether.spi.connector.transport.PeekTask;
+import org.eclipse.aether.spi.connector.transport.PutTask;
+import org.eclipse.aether.spi.connector.transport.Transporter;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transfer.NoTransporterException;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs the mojo offline with a local repository and a {@code file:} remote repository. Uploads to the remote
+ * repository are recorded and can be made to fail.
+ */
+final class DeployFixture {
+    static final String GROUP_ID = "org.example.test";
+    static final String REPOSITORY_ID = "test-remote";
+
+    final Path workDir;
+    final Path remoteRepoPath;
+    final RepositorySystem repositorySystem;
+    final RepositoryLayoutProvider repositoryLayoutProvider;
+    final TransporterProvider transporterProvider;
+    final DefaultRepositorySystemSession repositorySession;
+    /**
+     * Paths relative to the remote repository, in the order in which they were successfully uploaded.
+     */
+    final List<String> uploads = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Paths relative to the remote repository, in the order in which their uploads failed.
+     */
+    final List<String> failedUploads = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, Integer> failingUploads = new ConcurrentHashMap<>();
+    private final Map<String, Runnable> failureActions = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("deprecation")
+    DeployFixture(final Path workDir) {
+        this.workDir = workDir;
+        this.remoteRepoPath = workDir.resolve("remote");
+        final DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.setServices(TransporterFactory.class, new RecordingTransporterFactory());
+        this.repositorySystem = locator.getService(RepositorySystem.class);
+        this.repositoryLayoutProvider = locator.getService(RepositoryLayoutProvider.class);
+        this.transporterProvider = locator.getService(TransporterProvider.class);
+        this.repositorySession = MavenRepositorySystemUtils.newSession();
+        this.repositorySession.setLocalRepositoryManager(this.repositorySystem.newLocalRepositoryManager(
+                this.repositorySession, new LocalRepository(workDir.resolve("local").toFile())));
+    }
+
+    RemoteRepository remoteRepository() {
+        return new RemoteRepository.Builder(REPOSITORY_ID, "default", this.remoteRepoPath.toUri().toString()).build();
+    }
+
+    /**
+     * Makes the given number of uploads of the path fail before it succeeds.
+     *
+     * @param path path relative to the remote repository
+     */
+    void failUploads(final String path, final int failures) {
+        failUploads(path, failures, () -> { });
+    }
+
+    /**
+     * Makes the given number of uploads of the path fail before it succeeds, running the action on each failure.
+     *
+     * @param path path relative to the remote repository
+     */
+    void failUploads(final String path, final int failures, final Runnable onFailure) {
+        this.failingUploads.put(path, failures);
+        this.failureActions.put(path, onFailure);
+    }
+
+    /**
+     * @return path of an artifact relative to the remote repository
+     */
+    static String artifactPath(final String artifactId, final String extension) {
+        return GROUP_ID.replace('.', '/') + "/" + artifactId + "/" + TestSdk.BUNDLE_VERSION + "/" + artifactId + "-"
+                + TestSdk.BUNDLE_VERSION + "." + extension;
+    }
+
+    /**
+     * @return path of the artifact level metadata relative to the remote repository
+     */
+    static String metadataPath(final String artifactId) {
+        return GROUP_ID.replace('.', '/') + "/" + artifactId + "/maven-metadata.xml";
+    }
+
+    /**
+     * @return mojo configured the same way as by Maven, deploying the SDK archives to the remote repository without
+     * delays between retries
+     */
+    EquinoxMavenizerMojo newMojo(final List<File> sdkZipFiles) throws IllegalAccessException {
+        final MavenSession session = new MavenSession(null, this.repositorySession, new DefaultMavenExecutionRequest(),
+                new DefaultMavenExecutionResult());
+        final EquinoxMavenizerMojo mojo = new EquinoxMavenizerMojo(this.repositorySystem,
+                this.repositoryLayoutProvider, this.transporterProvider);
+        FieldUtils.writeField(mojo, "session", session, true);
+        FieldUtils.writeField(mojo, "buildDir", this.workDir.resolve("target").toFile(), true);
+        FieldUtils.writeField(mojo, "groupId", GROUP_ID, true);
+        FieldUtils.writeField(mojo, "equinoxSdkZipFiles", sdkZipFiles, true);
+        FieldUtils.writeField(mojo, "maxReportedCycles", 100, true);
+        FieldUtils.writeField(mojo, "cycleDetectionTimeout", 10_000L, true);
+        FieldUtils.writeField(mojo, "installBatchSize", 1, true);
+        FieldUtils.writeField(mojo, "installStrategy", InstallStrategy.COPY, true);
+        FieldUtils.writeField(mojo, "deploy", true, true);
+        FieldUtils.writeField(mojo, "deployRepositoryId", REPOSITORY_ID, true);
+        FieldUtils.writeField(mojo, "deployRepositoryUrl", remoteRepository().getUrl(), true);
+        FieldUtils.writeField(mojo, "retryFailedDeploymentCount", 10, true);
+        FieldUtils.writeField(mojo, "deployRetryDelay", 0L, true);
+        FieldUtils.writeField(mojo, "deployRetryMaxDelay", 0L, true);
+        FieldUtils.writeField(mojo, "deployRetryBudget", 100, true);
+        FieldUtils.writeField(mojo, "deployThreads", 1, true);
+        FieldUtils.writeField(mojo, "deployBatchSize", 1, true);
+        return mojo;
+    }
+
+    /**
+     * Sets a mojo parameter.
+     */
+    static void write(final EquinoxMavenizerMojo mojo, final String field, final Object value)
+            throws IllegalAccessException {
+        FieldUtils.writeField(mojo, field, value, true);
+    }
+
+    /**
+     * Uploads through the {@code file:} transporter, failing uploads configured by
+     * {@link #failUploads(String, int)}.
+     */
+    private final class RecordingTransporterFactory implements TransporterFactory {
+        private final FileTransporterFactory fileTransporterFactory = new FileTransporterFactory();
+
+        @Override
+        public Transporter newInstance(final RepositorySystemSession session, final RemoteRepository repository)
+                throws NoTransporterException {
+            final Transporter transporter = this.fileTransporterFactory.newInstance(session, repository);
+            return new Transporter() {
+                @Override
+                public int classify(final Throwable error) {
+                    return transporter.classify(error);
+                }
+
+                @Override
+                public void peek(final PeekTask task) throws Exception {
+                    transporter.peek(task);
+                }
+
+                @Override
+                public void get(final GetTask task) throws Exception {
+                    transporter.get(task);
+                }
+
+                @Override
+                public void put(final PutTask task) throws Exception {
+                    final String path = task.getLocation().getPath();
+                    final Integer failures = DeployFixture.this.failingUploads.computeIfPresent(path,
+                            (p, n) -> n - 1);
+                    if (failures != null && failures >= 0) {
+                        DeployFixture.this.failedUploads.add(path);
+                        DeployFixture.this.failureActions.get(path).run();
+                        throw new IOException("Injected failure of upload of " + path);
+                    }
+                    transporter.put(task);
+                    DeployFixture.this.uploads.add(path);
+                }
+
+                @Override
+                public void close() {
+                    transporter.close();
+                }
+            };
+        }
+
+        @Override
+        public float getPriority() {
+            return this.fileTransporterFactory.getPriority();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeploymentJournalTest {
+    private static final String REPOSITORY = "file:///repo";
+
+    @TempDir
+    Path dir;
+
+    private Path journalFile;
+
+    @BeforeEach
+    void setUp() {
+        this.journalFile = this.dir.resolve("journal").resolve("deployment.journal");
+    }
+
+    private Artifact artifact(final String artifactId, final String content) throws IOException {
+        final Path file = this.dir.resolve(artifactId + ".jar");
+        Files.writeString(file, content);
+        return new DefaultArtifact("org.example", artifactId, "jar", "1.0.0").setFile(file.toFile());
+    }
+
+    @Test
+    void resumesRecordedArtifacts() throws IOException {
+        final Artifact a = artifact("a", "content of a");
+        final Artifact b = artifact("b", "content of b");
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            assertFalse(journal.isDeployed(List.of(a)));
+            journal.recordDeployed(List.of(a));
+        }
+
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            assertTrue(journal.isDeployed(List.of(a)));
+            assertTrue(journal.isDeployed(List.of()));
+            assertFalse(journal.isDeployed(List.of(a, b)));
+            journal.recordDeployed(List.of(b));
+        }
+
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            assertTrue(journal.isDeployed(List.of(a, b)));
+        }
+        assertEquals("# repository " + REPOSITORY, Files.readAllLines(this.journalFile).get(0));
+    }
+
+    @Test
+    void changedContentIsNotDeployed() throws IOException {
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            journal.recordDeployed(List.of(artifact("a", "content of a")));
+        }
+
+        final Artifact changed = artifact("a", "new content of a");
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            assertFalse(journal.isDeployed(List.of(changed)));
+        }
+    }
+
+    @Test
+    void journalIsStartedAnewWithoutResume() throws IOException {
+        final Artifact a = artifact("a", "content of a");
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            journal.recordDeployed(List.of(a));
+        }
+
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, false)) {
+            assertFalse(journal.isDeployed(List.of(a)));
+        }
+        assertEquals(List.of("# repository " + REPOSITORY), Files.readAllLines(this.journalFile));
+    }
+
+    @Test
+    void journalOfDifferentRepositoryIsNotResumed() throws IOException {
+        final Artifact a = artifact("a", "content of a");
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            journal.recordDeployed(List.of(a));
+        }
+
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, "file:///other", true)) {
+            assertFalse(journal.isDeployed(List.of(a)));
+        }
+        assertEquals(List.of("# repository file:///other"), Files.readAllLines(this.journalFile));
+    }
+
+    @Test
+    void truncatedLastLineIsIgnored() throws IOException {
+        final Artifact a = artifact("a", "content of a");
+        final Artifact b = artifact("b", "content of b");
+        final Artifact c = artifact("c", "content of c");
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            journal.recordDeployed(List.of(a, b));
+        }
+        // Simulate a run interrupted in the middle of writing the line of b.
+        final String content = Files.readString(this.journalFile, StandardCharsets.UTF_8).stripTrailing();
+        Files.writeString(this.journalFile, content.substring(0, content.length() - 10), StandardCharsets.UTF_8,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            assertTrue(journal.isDeployed(List.of(a)));
+            assertFalse(journal.isDeployed(List.of(b)));
+            journal.recordDeployed(List.of(b, c));
+        }
+
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            assertTrue(journal.isDeployed(List.of(a, b, c)));
+        }
+    }
+
+    @Test
+    void missingJournalIsCreated() throws IOException {
+        final Artifact a = artifact("a", "content of a");
+        try (final DeploymentJournal journal = DeploymentJournal.open(this.journalFile, REPOSITORY, true)) {
+            assertFalse(journal.isDeployed(List.of(a)));
+        }
+        assertEquals(List.of("# repository " + REPOSITORY), Files.readAllLines(this.journalFile));
+    }
+}
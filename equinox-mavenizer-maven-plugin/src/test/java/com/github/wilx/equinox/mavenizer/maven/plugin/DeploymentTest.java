@@ -0,0 +1,182 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.wilx.equinox.mavenizer.maven.plugin.DeployFixture.artifactPath;
+import static com.github.wilx.equinox.mavenizer.maven.plugin.DeployFixture.metadataPath;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deploys synthetic SDKs to a {@code file:} repository.
+ */
+class DeploymentTest {
+    @TempDir
+    Path dir;
+
+    private DeployFixture fixture;
+    private Path sdkZipPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.fixture = new DeployFixture(this.dir);
+        this.sdkZipPath = new TestSdk()
+                .bundle("org.example.a")
+                .bundle("org.example.b", "org.example.a")
+                .bundle("org.example.c", "org.example.a", "org.example.b")
+                .write(this.dir.resolve("sdk.zip"));
+    }
+
+    private void assertUploadedOnce() {
+        final Set<String> uploaded = new HashSet<>();
+        for (final String path : this.fixture.uploads) {
+            if (!path.contains("/maven-metadata.xml")) {
+                assertTrue(uploaded.add(path), path + " was uploaded more than once: " + this.fixture.uploads);
+            }
+        }
+    }
+
+    private void assertMetadataListsVersion(final String artifactId) throws IOException {
+        final Path metadata = this.fixture.remoteRepoPath.resolve(metadataPath(artifactId));
+        final String content = Files.readString(metadata, StandardCharsets.UTF_8);
+        assertTrue(content.contains("<version>" + TestSdk.BUNDLE_VERSION + "</version>"), content);
+    }
+
+    /**
+     * @return action deploying version 0.9.0 of the artifact by another client
+     */
+    private Runnable concurrentDeployment(final String artifactId) {
+        final Path metadata = this.fixture.remoteRepoPath.resolve(metadataPath(artifactId));
+        return () -> {
+            try {
+                Files.writeString(metadata, "<metadata><groupId>" + DeployFixture.GROUP_ID + "</groupId><artifactId>"
+                        + artifactId + "</artifactId><versioning><versions><version>0.9.0</version></versions>"
+                        + "</versioning></metadata>", StandardCharsets.UTF_8);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private void assertMetadataListsConcurrentVersion(final String artifactId) throws IOException {
+        final Path metadata = this.fixture.remoteRepoPath.resolve(metadataPath(artifactId));
+        final String content = Files.readString(metadata, StandardCharsets.UTF_8);
+        assertTrue(content.contains("<version>0.9.0</version>"), content);
+    }
+
+    @Test
+    void retriedDeploymentDoesNotUploadArtifactsTwice() throws Exception {
+        // The JAR is uploaded before the POM fails. The retry deploys the POM and carries metadata of the JAR's
+        // version. Upload of the metadata fails once more, while another client deploys an older version.
+        this.fixture.failUploads(artifactPath("org.example.b", "pom"), 1);
+        this.fixture.failUploads(metadataPath("org.example.b"), 1, concurrentDeployment("org.example.b"));
+
+        this.fixture.newMojo(List.of(this.sdkZipPath.toFile())).execute();
+
+        assertEquals(List.of(artifactPath("org.example.b", "pom"), metadataPath("org.example.b")),
+                this.fixture.failedUploads);
+        assertUploadedOnce();
+        assertTrue(this.fixture.uploads.contains(artifactPath("org.example.b", "jar")));
+        assertTrue(this.fixture.uploads.contains(artifactPath("org.example.b", "pom")));
+        for (final String artifactId : List.of("org.example.a", "org.example.b", "org.example.c")) {
+            assertMetadataListsVersion(artifactId);
+        }
+        assertMetadataListsConcurrentVersion("org.example.b");
+    }
+
+    @Test
+    void retriedMetadataDeploymentMergesCurrentMetadata() throws Exception {
+        // The batch fails on the POM of c. Bundles a and b were uploaded completely, only their metadata is deployed.
+        // Upload of metadata of b fails once, while another client deploys an older version.
+        this.fixture.failUploads(artifactPath("org.example.c", "pom"), 1);
+        this.fixture.failUploads(metadataPath("org.example.b"), 1, concurrentDeployment("org.example.b"));
+        final EquinoxMavenizerMojo mojo = this.fixture.newMojo(List.of(this.sdkZipPath.toFile()));
+        DeployFixture.write(mojo, "deployBatchSize", 3);
+
+        mojo.execute();
+
+        assertEquals(List.of(artifactPath("org.example.c", "pom"), metadataPath("org.example.b")),
+                this.fixture.failedUploads);
+        assertUploadedOnce();
+        for (final String artifactId : List.of("org.example.a", "org.example.b", "org.example.c")) {
+            assertMetadataListsVersion(artifactId);
+        }
+        assertMetadataListsConcurrentVersion("org.example.b");
+    }
+
+    @Test
+    void exhaustedRetriesFailTheBuild() throws Exception {
+        this.fixture.failUploads(artifactPath("org.example.b", "jar"), 100);
+        final EquinoxMavenizerMojo mojo = this.fixture.newMojo(List.of(this.sdkZipPath.toFile()));
+        DeployFixture.write(mojo, "retryFailedDeploymentCount", 2);
+
+        final MojoExecutionException e = assertThrows(MojoExecutionException.class, mojo::execute);
+        assertTrue(e.getCause().getMessage().contains("org.example.b"), e.getCause().getMessage());
+        assertUploadedOnce();
+    }
+
+    @Test
+    void concurrentDeploymentReportsFirstFailureInArtifactOrderAndDeploysBomLast() throws Exception {
+        final Path sdkZip = new TestSdk()
+                .bundle("org.example.a")
+                .bundle("org.example.b")
+                .bundle("org.example.c")
+                .bundle("org.example.d")
+                .bundle("org.example.e")
+                .bundle("org.example.f")
+                .write(this.dir.resolve("sdk6.zip"));
+        // Upload of e fails first, while the failure of upload of c is held back.
+        final List<String> failureOrder = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch eFailed = new CountDownLatch(1);
+        this.fixture.failUploads(artifactPath("org.example.e", "jar"), 100, () -> {
+            failureOrder.add("org.example.e");
+            eFailed.countDown();
+        });
+        this.fixture.failUploads(artifactPath("org.example.c", "jar"), 100, () -> {
+            try {
+                eFailed.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            failureOrder.add("org.example.c");
+        });
+        final EquinoxMavenizerMojo mojo = this.fixture.newMojo(List.of(sdkZip.toFile()));
+        DeployFixture.write(mojo, "deployThreads", 4);
+        DeployFixture.write(mojo, "retryFailedDeploymentCount", 2);
+
+        final MojoExecutionException e = assertThrows(MojoExecutionException.class, mojo::execute);
+
+        assertEquals("org.example.e", failureOrder.get(0));
+        assertTrue(e.getCause().getMessage().contains("org.example.c"), e.getCause().getMessage());
+        assertUploadedOnce();
+        for (final String artifactId : List.of("org.example.a", "org.example.b", "org.example.d", "org.example.f")) {
+            assertTrue(this.fixture.uploads.contains(artifactPath(artifactId, "jar")), artifactId);
+            assertTrue(this.fixture.uploads.contains(artifactPath(artifactId, "pom")), artifactId);
+        }
+        final List<String> artifactUploads = this.fixture.uploads.stream()
+                .filter(path -> !path.contains("/maven-metadata.xml") && !path.endsWith(".sha1")
+                        && !path.endsWith(".md5"))
+                .toList();
+        final String bomPrefix = DeployFixture.GROUP_ID.replace('.', '/') + "/bom/";
+        final String lastUpload = artifactUploads.get(artifactUploads.size() - 1);
+        assertTrue(lastUpload.startsWith(bomPrefix) && lastUpload.endsWith(".pom"), artifactUploads.toString());
+        assertEquals(1, artifactUploads.stream().filter(path -> path.startsWith(bomPrefix)).count());
+    }
+}
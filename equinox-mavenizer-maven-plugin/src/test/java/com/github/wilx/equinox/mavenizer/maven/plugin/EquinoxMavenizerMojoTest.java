@@ -0,0 +1,243 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.DependencyType;
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.ImportPackage;
+import org.apache.maven.plugin.MojoFailureException;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.deployment.DeployRequest;
+import org.eclipse.aether.metadata.Metadata;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.util.artifact.ArtifactIdUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EquinoxMavenizerMojoTest {
+    private static final RemoteRepository REPOSITORY = new RemoteRepository.Builder("test", "default",
+            "file:///repo").build();
+
+    private static Artifact artifact(final String artifactId, final String classifier, final String extension) {
+        return new DefaultArtifact("org.example", artifactId, classifier, extension, "1.0.0");
+    }
+
+    private static DeployRequest request(final Artifact... artifacts) {
+        final DeployRequest request = new DeployRequest();
+        request.setRepository(REPOSITORY);
+        request.setArtifacts(List.of(artifacts));
+        return request;
+    }
+
+    private static List<String> versionMetadata(final DeployRequest request) {
+        final List<String> result = new ArrayList<>();
+        for (final Metadata metadata : request.getMetadata()) {
+            final VersionMetadata vm = (VersionMetadata) metadata;
+            result.add(vm.getArtifactId() + ":" + vm.getDeployedVersion());
+        }
+        return result;
+    }
+
+    @Test
+    void remainingRequestIsUnchangedWhenNothingWasUploaded() {
+        final DeployRequest request = request(artifact("a", "", "jar"), artifact("a", "", "pom"));
+        assertSame(request, EquinoxMavenizerMojo.remainingDeployRequest(request, Set.of()));
+    }
+
+    @Test
+    void remainingRequestCopiesMetadataWhenNothingWasUploaded() {
+        final Artifact aJar = artifact("a", "", "jar");
+        final DeployRequest request = request();
+        request.setMetadata(List.of(new VersionMetadata(aJar)));
+
+        final DeployRequest remaining = EquinoxMavenizerMojo.remainingDeployRequest(request, Set.of());
+
+        assertEquals(List.of("a:1.0.0"), versionMetadata(remaining));
+        assertNotSame(request.getMetadata().iterator().next(), remaining.getMetadata().iterator().next());
+    }
+
+    @Test
+    void remainingRequestResendsOnlyArtifactsNotUploaded() {
+        final Artifact aJar = artifact("a", "", "jar");
+        final Artifact aPom = artifact("a", "", "pom");
+        final Artifact bJar = artifact("b", "", "jar");
+        final Artifact bSources = artifact("b", "sources", "jar");
+        final Artifact cJar = artifact("c", "", "jar");
+        final DeployRequest request = request(aJar, aPom, bJar, bSources, cJar);
+
+        final DeployRequest remaining = EquinoxMavenizerMojo.remainingDeployRequest(request,
+                Set.of(ArtifactIdUtils.toBaseId(aJar), ArtifactIdUtils.toBaseId(aPom), ArtifactIdUtils.toBaseId(bJar)));
+
+        assertEquals(List.of(bSources, cJar), remaining.getArtifacts());
+        assertSame(REPOSITORY, remaining.getRepository());
+        // Version b is not complete, its metadata is deployed with its remaining artifacts.
+        assertEquals(List.of("a:1.0.0"), versionMetadata(remaining));
+    }
+
+    @Test
+    void remainingRequestDoesNotDuplicateMetadata() {
+        final Artifact aJar = artifact("a", "", "jar");
+        final Artifact bJar = artifact("b", "", "jar");
+        final Artifact bPom = artifact("b", "", "pom");
+        final DeployRequest first = EquinoxMavenizerMojo.remainingDeployRequest(request(aJar, bJar, bPom),
+                Set.of(ArtifactIdUtils.toBaseId(aJar)));
+        assertEquals(List.of("a:1.0.0"), versionMetadata(first));
+
+        final DeployRequest second = EquinoxMavenizerMojo.remainingDeployRequest(first,
+                Set.of(ArtifactIdUtils.toBaseId(aJar), ArtifactIdUtils.toBaseId(bJar)));
+        assertEquals(List.of(bPom), second.getArtifacts());
+        assertEquals(List.of("a:1.0.0"), versionMetadata(second));
+        // The resolver changes the metadata while deploying them, they are not reused.
+        assertNotSame(first.getMetadata().iterator().next(), second.getMetadata().iterator().next());
+
+        final DeployRequest third = EquinoxMavenizerMojo.remainingDeployRequest(second,
+                Set.of(ArtifactIdUtils.toBaseId(bPom)));
+        assertTrue(third.getArtifacts().isEmpty());
+        assertEquals(List.of("a:1.0.0", "b:1.0.0"), versionMetadata(third));
+    }
+
+    private static List<String> dependencies(final SdkEntry sdkEntry) {
+        return sdkEntry.getDependencies().stream().map(SdkEntry.Dependency::artifactId).toList();
+    }
+
+    @Test
+    void candidateDependenciesAvoidNewCyclesDespiteExistingCycle() {
+        final List<SdkEntry> sdkEntries = new ArrayList<>();
+        for (final String artifactId : List.of("a", "b", "c", "d", "e")) {
+            sdkEntries.add(new SdkEntry(artifactId, "1.0.0"));
+        }
+        // Bundles a and b depend on each other.
+        sdkEntries.get(0).addDependency("b", DependencyType.NORMAL);
+        sdkEntries.get(1).addDependency("a", DependencyType.NORMAL);
+        sdkEntries.get(4).addDependency("c", DependencyType.NORMAL);
+        final ImportPackage ip = new ImportPackage("p", DependencyType.OPTIONAL, null);
+
+        EquinoxMavenizerMojo.addAcyclicDependencies(sdkEntries, List.of(
+                List.of(new EquinoxMavenizerMojo.CandidateDependency(2, new int[] {3, 0}, ip)),
+                List.of(new EquinoxMavenizerMojo.CandidateDependency(3, new int[] {2, 4, 1}, ip),
+                        new EquinoxMavenizerMojo.CandidateDependency(0, new int[] {1}, ip),
+                        new EquinoxMavenizerMojo.CandidateDependency(1, new int[] {4}, ip))));
+
+        assertEquals(List.of("d"), dependencies(sdkEntries.get(2)));
+        // Dependency of d on c or on e would close a cycle through c.
+        assertEquals(List.of("b"), dependencies(sdkEntries.get(3)));
+        // Existing dependency does not create a new cycle.
+        assertEquals(List.of("b"), dependencies(sdkEntries.get(0)));
+        // Dependency of b on e would close cycle b, e, c, d.
+        assertEquals(List.of("a"), dependencies(sdkEntries.get(1)));
+    }
+
+    private static Release release(final String id, final String... archives) {
+        final Release release = new Release();
+        release.setId(id);
+        final List<File> files = new ArrayList<>();
+        for (final String archive : archives) {
+            files.add(new File(archive));
+        }
+        release.setEquinoxSdkZipFiles(files);
+        return release;
+    }
+
+    @Test
+    void validReleasesAreAccepted() {
+        assertDoesNotThrow(() -> EquinoxMavenizerMojo.validateReleases(List.of(
+                release("4.30", "sdk-4.30.zip"), release("4.31.0-RC1", "sdk-4.31.zip", "extra.zip"),
+                release("R4_32+build", "sdk-4.32.zip"))));
+    }
+
+    @Test
+    void invalidReleasesAreRejected() {
+        assertRejected("Release ID must be specified", release(" ", "sdk.zip"));
+        assertRejected("Release ID must be specified", release(null, "sdk.zip"));
+        assertRejected("Release ID 4.30/x is not a valid version", release("4.30/x", "sdk.zip"));
+        assertRejected("Release ID -4.30 is not a valid version", release("-4.30", "sdk.zip"));
+        assertRejected("Duplicate release ID 4.30", release("4.30", "a.zip"), release("4.30", "b.zip"));
+        assertRejected("Release 4.30 does not have any SDK archives", release("4.30"));
+        final Release withoutArchives = release("4.31");
+        withoutArchives.setEquinoxSdkZipFiles(null);
+        assertRejected("Release 4.31 does not have any SDK archives", withoutArchives);
+    }
+
+    private static void assertRejected(final String message, final Release... releases) {
+        final MojoFailureException e = assertThrows(MojoFailureException.class,
+                () -> EquinoxMavenizerMojo.validateReleases(List.of(releases)));
+        assertTrue(e.getMessage().startsWith(message), e.getMessage());
+    }
+
+    @Test
+    void exactlyOneOfSdkZipFilesAndReleasesIsRequired() throws MojoFailureException {
+        final List<File> sdkZipFiles = List.of(new File("sdk.zip"));
+        final List<Release> releases = List.of(release("4.30", "sdk.zip"));
+        assertFalse(EquinoxMavenizerMojo.validateSdkSources(sdkZipFiles, null));
+        assertFalse(EquinoxMavenizerMojo.validateSdkSources(sdkZipFiles, List.of()));
+        assertTrue(EquinoxMavenizerMojo.validateSdkSources(null, releases));
+        assertTrue(EquinoxMavenizerMojo.validateSdkSources(List.of(), releases));
+
+        assertEquals("Only one of equinoxSdkZipFiles and releases can be specified, not both",
+                assertThrows(MojoFailureException.class,
+                        () -> EquinoxMavenizerMojo.validateSdkSources(sdkZipFiles, releases)).getMessage());
+        assertEquals("Either equinoxSdkZipFiles or releases has to be specified",
+                assertThrows(MojoFailureException.class,
+                        () -> EquinoxMavenizerMojo.validateSdkSources(null, null)).getMessage());
+        assertEquals("Either equinoxSdkZipFiles or releases has to be specified",
+                assertThrows(MojoFailureException.class,
+                        () -> EquinoxMavenizerMojo.validateSdkSources(List.of(), List.of())).getMessage());
+        assertThrows(MojoFailureException.class,
+                () -> EquinoxMavenizerMojo.validateSdkSources(null, List.of(release("4.30"))));
+    }
+
+    private static SdkEntry exporter(final String artifactId, final String version) {
+        final SdkEntry sdkEntry = new SdkEntry(artifactId, version);
+        sdkEntry.addExportPackage("p", null);
+        return sdkEntry;
+    }
+
+    private static Map<String, SdkEntry> releaseEntries(final SdkEntry... sdkEntries) {
+        final Map<String, SdkEntry> mappedEntries = new TreeMap<>();
+        for (final SdkEntry sdkEntry : sdkEntries) {
+            mappedEntries.put(sdkEntry.getArtifactId(), sdkEntry);
+        }
+        return mappedEntries;
+    }
+
+    @Test
+    void differentDependenciesOfSharedBundleVersionsAreDetected() throws Exception {
+        final EquinoxMavenizerMojo mojo = new EquinoxMavenizerMojo(null, null, null);
+        final SdkEntry shared = new SdkEntry("s", "1.0.0");
+        shared.addImportPackage("p", DependencyType.NORMAL, null);
+        final SdkEntry x1 = exporter("x", "1.0.0");
+        final Map<String, SdkEntry> first = releaseEntries(shared, x1);
+        mojo.analyzeDependencies(first, new TreeMap<>(), Set.of());
+        final Map<SdkEntry, EquinoxMavenizerMojo.ResolvedDependencies> resolvedDependencies = Map.of(shared,
+                new EquinoxMavenizerMojo.ResolvedDependencies("1", EquinoxMavenizerMojo.dependencyKeys(shared, first)));
+        assertEquals(Set.of("x:1.0.0"), resolvedDependencies.get(shared).dependencies());
+
+        // The same exporter, and a different version of it.
+        assertEquals(0, mojo.warnAboutDifferentDependencies(release("2", "sdk2.zip"), releaseEntries(shared, x1),
+                new TreeMap<>(), resolvedDependencies));
+        final SdkEntry x2 = exporter("x", "2.0.0");
+        final Map<String, SdkEntry> second = releaseEntries(shared, x2);
+        assertEquals(1, mojo.warnAboutDifferentDependencies(release("2", "sdk2.zip"), second, new TreeMap<>(),
+                resolvedDependencies));
+        // The POM of the shared bundle version keeps the dependencies of the first release.
+        assertEquals(List.of("x"), dependencies(shared));
+        assertTrue(x2.getDependencies().isEmpty());
+
+        // A different exporter of the package.
+        assertEquals(1, mojo.warnAboutDifferentDependencies(release("3", "sdk3.zip"),
+                releaseEntries(shared, exporter("z", "1.0.0")), new TreeMap<>(), resolvedDependencies));
+        assertEquals(List.of("x"), dependencies(shared));
+    }
+}
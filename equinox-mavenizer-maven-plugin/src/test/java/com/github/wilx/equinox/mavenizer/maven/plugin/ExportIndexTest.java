@@ -0,0 +1,115 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.osgi.framework.Version;
+import org.osgi.framework.VersionRange;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportIndexTest {
+    private ExportIndex index;
+    private int split;
+
+    /**
+     * Package {@code split} is exported by five bundles in versions 1.0.0, 2.0.0 twice, 3.0.0 and without version.
+     * Bundle 1 exports it also in version 1.5.0. Package {@code single} is exported by bundle 0 only.
+     */
+    @BeforeEach
+    void buildIndex() {
+        final SdkEntry b0 = entry("b0");
+        b0.addExportPackage("split", "1.0.0");
+        b0.addExportPackage("single", "4.2.0");
+        final SdkEntry b1 = entry("b1");
+        b1.addExportPackage("split", "2.0.0");
+        b1.addExportPackage("split", "1.5.0");
+        final SdkEntry b2 = entry("b2");
+        b2.addExportPackage("split", "2.0.0");
+        final SdkEntry b3 = entry("b3");
+        b3.addExportPackage("split", "3.0.0");
+        final SdkEntry b4 = entry("b4");
+        b4.addExportPackage("split", null);
+        this.index = new ExportIndex(List.of(b3, b1, b0, b2, b4).stream()
+                .sorted((a, b) -> a.getArtifactId().compareTo(b.getArtifactId()))
+                .toList());
+        this.split = this.index.packageId("split");
+    }
+
+    private static SdkEntry entry(final String artifactId) {
+        return new SdkEntry(artifactId, "1.0.0");
+    }
+
+    private int best(final String range) {
+        return this.index.bestExporter(this.split, ExportIndex.parseVersionRange(range));
+    }
+
+    @Test
+    void countsDistinctExportingBundles() {
+        assertEquals(5, this.index.bundleCount(this.split));
+        assertEquals(1, this.index.bundleCount(this.index.packageId("single")));
+        assertEquals(SymbolTable.NOT_FOUND, this.index.packageId("missing"));
+    }
+
+    @Test
+    void firstExporterExportsLowestVersion() {
+        assertEquals(4, this.index.firstExporter(this.split));
+    }
+
+    @Test
+    void bestExporterExportsHighestVersionInRange() {
+        assertEquals(3, best(null));
+        assertEquals(3, best("1.0.0"));
+        assertEquals(3, best("[1.0.0,3.0.0]"));
+        // Lowest bundle index wins among equal versions.
+        assertEquals(1, best("[1.0.0,3.0.0)"));
+        assertEquals(1, best("[2.0.0,2.0.0]"));
+        assertEquals(1, best("[1.5.0,2.0.0)"));
+        assertEquals(0, best("[1.0.0,1.5.0)"));
+        assertEquals(0, best("(0.0.0,1.0.0]"));
+        assertEquals(4, best("[0.0.0,1.0.0)"));
+    }
+
+    @Test
+    void bestExporterOfRangeOutsideExportedVersions() {
+        assertEquals(ExportIndex.NONE, best("[3.0.1,4.0.0)"));
+        assertEquals(ExportIndex.NONE, best("(3.0.0,4.0.0)"));
+        assertEquals(ExportIndex.NONE, best("(1.0.0,1.5.0)"));
+        assertEquals(ExportIndex.NONE, this.index.bestExporter(this.index.packageId("single"),
+                ExportIndex.parseVersionRange("[5.0.0,6.0.0)")));
+        assertEquals(0, this.index.bestExporter(this.index.packageId("single"),
+                ExportIndex.parseVersionRange("[4.0.0,5.0.0)")));
+    }
+
+    @Test
+    void exportersInRangeAreOrderedByPreference() {
+        final VersionRange range = ExportIndex.parseVersionRange("[1.0.0,3.0.0)");
+        assertArrayEquals(new int[] {1, 2, 1, 0}, this.index.exportersInRange(this.split, range));
+        assertArrayEquals(new int[] {3, 1, 2, 1, 0, 4},
+                this.index.exportersInRange(this.split, ExportIndex.parseVersionRange(null)));
+        assertArrayEquals(new int[0],
+                this.index.exportersInRange(this.split, ExportIndex.parseVersionRange("[5.0.0,6.0.0)")));
+    }
+
+    @Test
+    void exportsInRangeChecksTheBundle() {
+        final VersionRange range = ExportIndex.parseVersionRange("[2.0.0,3.0.0)");
+        assertTrue(this.index.exportsInRange(this.split, 2, range));
+        assertTrue(this.index.exportsInRange(this.split, 1, range));
+        assertFalse(this.index.exportsInRange(this.split, 0, range));
+        assertTrue(this.index.exportsInRange(this.split, 1, ExportIndex.parseVersionRange("[1.5.0,1.5.0]")));
+    }
+
+    @Test
+    void invalidVersionsAreLenient() {
+        assertEquals(Version.emptyVersion, ExportIndex.parseVersion("not a version"));
+        assertEquals(Version.emptyVersion, ExportIndex.parseVersion(null));
+        assertEquals(new Version(1, 2, 3), ExportIndex.parseVersion("1.2.3"));
+        assertTrue(ExportIndex.parseVersionRange("[1.0").includes(new Version(99, 0, 0)));
+        assertTrue(ExportIndex.parseVersionRange("[1.0").includes(Version.emptyVersion));
+    }
+}
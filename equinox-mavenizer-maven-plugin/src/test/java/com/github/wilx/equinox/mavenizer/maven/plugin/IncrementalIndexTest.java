@@ -0,0 +1,252 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.DependencyType;
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.ExportPackage;
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.ImportPackage;
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.RequireBundle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalIndexTest {
+    private static final String ARCHIVE = "/sdk/equinox-sdk.zip";
+
+    @TempDir
+    Path dir;
+
+    private Path indexFile;
+
+    @BeforeEach
+    void setUp() {
+        this.indexFile = this.dir.resolve(".incremental-index");
+    }
+
+    /**
+     * Writes an extracted file with the given content.
+     *
+     * @return key of an archive entry with the same content
+     */
+    private IncrementalIndex.Key extract(final String fileName, final String content) throws IOException {
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Files.write(this.dir.resolve(fileName), bytes);
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return new IncrementalIndex.Key(ARCHIVE, "plugins/" + fileName, crc.getValue(), bytes.length);
+    }
+
+    private static SdkEntry analyzedEntry() {
+        final SdkEntry sdkEntry = new SdkEntry("org.example.a", "1.0.0");
+        sdkEntry.setBsn("org.example.a");
+        sdkEntry.setName("Bundle A");
+        sdkEntry.setDescription(null);
+        sdkEntry.setFragmentHost("org.example.host");
+        sdkEntry.setDSImpl(false);
+        sdkEntry.setRequiresDS(true);
+        sdkEntry.setServiceLoaderImpl(true);
+        sdkEntry.setRequiresServiceLoader(false);
+        sdkEntry.setHasBundleActivator(true);
+        sdkEntry.addRequireBundle("org.example.b", DependencyType.OPTIONAL);
+        sdkEntry.addImportPackage("org.example.c", DependencyType.NORMAL, "[1.0.0,2.0.0)");
+        sdkEntry.addImportPackage("org.example.d", DependencyType.OPTIONAL, null);
+        sdkEntry.addExportPackage("org.example.a", "1.0.0");
+        sdkEntry.addExportPackage("org.example.a.internal", null);
+        // A long string does not fit into the limit of DataOutput.writeUTF().
+        final char[] longName = new char[70_000];
+        Arrays.fill(longName, 'x');
+        sdkEntry.addExportPackage(new String(longName), null);
+        return sdkEntry;
+    }
+
+    @Test
+    void roundTripsExtractedFilesAndMetadata() throws IOException {
+        final IncrementalIndex.Key key = extract("0001-a.jar", "content of a");
+        final IncrementalIndex index = IncrementalIndex.load(this.indexFile);
+        assertNull(index.getExtractedFile(key, this.dir));
+        index.putExtractedFile(key, this.dir.resolve("0001-a.jar"));
+        index.putMetadata(key, "org.example.a;singleton:=true", analyzedEntry());
+        index.save();
+
+        final IncrementalIndex loaded = IncrementalIndex.load(this.indexFile);
+        assertEquals(this.dir.resolve("0001-a.jar"), loaded.getExtractedFile(key, this.dir));
+        final SdkEntry restored = new SdkEntry("org.example.a", "1.0.0");
+        assertEquals(Boolean.TRUE, loaded.restoreMetadata(key, restored, Set.of()));
+        final SdkEntry expected = analyzedEntry();
+        assertEquals(expected.getBsn(), restored.getBsn());
+        assertEquals(expected.getName(), restored.getName());
+        assertNull(restored.getDescription());
+        assertEquals(expected.getFragmentHost(), restored.getFragmentHost());
+        assertFalse(restored.isDSImpl());
+        assertTrue(restored.isRequiresDS());
+        assertTrue(restored.isServiceLoaderImpl());
+        assertFalse(restored.isRequiresServiceLoader());
+        assertTrue(restored.hasBundleActivator());
+        assertEquals(new ArrayList<RequireBundle>(expected.getRequireBundle()),
+                new ArrayList<>(restored.getRequireBundle()));
+        assertEquals(new ArrayList<ImportPackage>(expected.getImportPackage()),
+                new ArrayList<>(restored.getImportPackage()));
+        assertEquals(new ArrayList<ExportPackage>(expected.getExportPackage()),
+                new ArrayList<>(restored.getExportPackage()));
+    }
+
+    @Test
+    void unknownEntryIsNotRestored() throws IOException {
+        final IncrementalIndex.Key key = extract("0001-a.jar", "content of a");
+        final IncrementalIndex index = IncrementalIndex.load(this.indexFile);
+        index.putExtractedFile(key, this.dir.resolve("0001-a.jar"));
+        index.save();
+
+        final IncrementalIndex loaded = IncrementalIndex.load(this.indexFile);
+        final IncrementalIndex.Key otherCrc = new IncrementalIndex.Key(key.archive(), key.entryName(), key.crc() + 1,
+                key.size());
+        assertNull(loaded.getExtractedFile(otherCrc, this.dir));
+        assertNull(loaded.restoreMetadata(key, new SdkEntry("org.example.a", "1.0.0"), Set.of()));
+    }
+
+    @Test
+    void bundlesWithoutBsnAndIgnoredBundlesAreNotAnalyzed() throws IOException {
+        final IncrementalIndex.Key noBsn = extract("0001-a.jar", "a");
+        final IncrementalIndex.Key ignored = extract("0002-b.jar", "b");
+        final IncrementalIndex index = IncrementalIndex.load(this.indexFile);
+        index.putMetadata(noBsn, null, new SdkEntry("a", "1.0.0"));
+        index.putMetadata(ignored, "org.example.ignored", analyzedEntry());
+        index.save();
+
+        final IncrementalIndex loaded = IncrementalIndex.load(this.indexFile);
+        assertEquals(Boolean.FALSE, loaded.restoreMetadata(noBsn, new SdkEntry("a", "1.0.0"), Set.of()));
+        assertEquals(Boolean.FALSE, loaded.restoreMetadata(ignored, new SdkEntry("b", "1.0.0"),
+                Set.of("org.example.ignored")));
+    }
+
+    @Test
+    void savingDropsEntriesNotUsedByTheRunAndDeletesTheirFiles() throws IOException {
+        final IncrementalIndex.Key a = extract("0001-a.jar", "content of a");
+        final IncrementalIndex.Key b = extract("0002-b.jar", "content of b");
+        final IncrementalIndex first = IncrementalIndex.load(this.indexFile);
+        first.putExtractedFile(a, this.dir.resolve("0001-a.jar"));
+        first.putExtractedFile(b, this.dir.resolve("0002-b.jar"));
+        first.save();
+
+        // The second run sees only entry a, extracted under a new name.
+        final IncrementalIndex second = IncrementalIndex.load(this.indexFile);
+        final Path previous = second.getExtractedFile(a, this.dir);
+        assertEquals(this.dir.resolve("0001-a.jar"), previous);
+        Files.move(previous, this.dir.resolve("0000-a.jar"));
+        second.putExtractedFile(a, this.dir.resolve("0000-a.jar"));
+        second.save();
+
+        assertFalse(Files.exists(this.dir.resolve("0002-b.jar")));
+        assertTrue(Files.exists(this.dir.resolve("0000-a.jar")));
+        final IncrementalIndex third = IncrementalIndex.load(this.indexFile);
+        assertEquals(this.dir.resolve("0000-a.jar"), third.getExtractedFile(a, this.dir));
+        assertNull(third.getExtractedFile(b, this.dir));
+    }
+
+    @Test
+    void modifiedFileIsReusedOnlyWithMatchingCrc() throws IOException {
+        final IncrementalIndex.Key touched = extract("0001-a.jar", "content of a");
+        final IncrementalIndex.Key changed = extract("0002-b.jar", "content of b");
+        final IncrementalIndex.Key resized = extract("0003-c.jar", "content of c");
+        final IncrementalIndex index = IncrementalIndex.load(this.indexFile);
+        index.putExtractedFile(touched, this.dir.resolve("0001-a.jar"));
+        index.putExtractedFile(changed, this.dir.resolve("0002-b.jar"));
+        index.putExtractedFile(resized, this.dir.resolve("0003-c.jar"));
+        index.save();
+
+        final FileTime later = FileTime.fromMillis(System.currentTimeMillis() + 60_000);
+        Files.setLastModifiedTime(this.dir.resolve("0001-a.jar"), later);
+        Files.writeString(this.dir.resolve("0002-b.jar"), "CONTENT OF B");
+        Files.setLastModifiedTime(this.dir.resolve("0002-b.jar"), later);
+        Files.writeString(this.dir.resolve("0003-c.jar"), "content of c, longer");
+
+        final IncrementalIndex loaded = IncrementalIndex.load(this.indexFile);
+        assertEquals(this.dir.resolve("0001-a.jar"), loaded.getExtractedFile(touched, this.dir));
+        assertNull(loaded.getExtractedFile(changed, this.dir));
+        assertNull(loaded.getExtractedFile(resized, this.dir));
+    }
+
+    @Test
+    void missingExtractedFileIsNotReused() throws IOException {
+        final IncrementalIndex.Key key = extract("0001-a.jar", "content of a");
+        final IncrementalIndex index = IncrementalIndex.load(this.indexFile);
+        index.putExtractedFile(key, this.dir.resolve("0001-a.jar"));
+        index.save();
+        Files.delete(this.dir.resolve("0001-a.jar"));
+
+        assertNull(IncrementalIndex.load(this.indexFile).getExtractedFile(key, this.dir));
+    }
+
+    @Test
+    void truncatedIndexIsIgnored() throws IOException {
+        final IncrementalIndex.Key key = extract("0001-a.jar", "content of a");
+        final IncrementalIndex index = IncrementalIndex.load(this.indexFile);
+        index.putExtractedFile(key, this.dir.resolve("0001-a.jar"));
+        index.putMetadata(key, "org.example.a", analyzedEntry());
+        index.save();
+
+        final byte[] bytes = Files.readAllBytes(this.indexFile);
+        for (final int length : new int[] {0, 3, 12, bytes.length / 2, bytes.length - 1}) {
+            Files.write(this.indexFile, Arrays.copyOf(bytes, length));
+            final IncrementalIndex loaded = IncrementalIndex.load(this.indexFile);
+            assertNull(loaded.getExtractedFile(key, this.dir), "truncated to " + length);
+            assertNull(loaded.restoreMetadata(key, new SdkEntry("org.example.a", "1.0.0"), Set.of()),
+                    "truncated to " + length);
+        }
+    }
+
+    @Test
+    void indexOfOtherFormatIsIgnored() throws IOException {
+        final IncrementalIndex.Key key = extract("0001-a.jar", "content of a");
+        final IncrementalIndex index = IncrementalIndex.load(this.indexFile);
+        index.putExtractedFile(key, this.dir.resolve("0001-a.jar"));
+        index.save();
+
+        final byte[] bytes = Files.readAllBytes(this.indexFile);
+        // Format version follows the magic number.
+        bytes[7]++;
+        Files.write(this.indexFile, bytes);
+        assertNull(IncrementalIndex.load(this.indexFile).getExtractedFile(key, this.dir));
+
+        bytes[7]--;
+        bytes[0]++;
+        Files.write(this.indexFile, bytes);
+        assertNull(IncrementalIndex.load(this.indexFile).getExtractedFile(key, this.dir));
+    }
+
+    @Test
+    void missingIndexIsEmpty() {
+        final IncrementalIndex index = IncrementalIndex.load(this.dir.resolve("missing"));
+        assertNull(index.getExtractedFile(new IncrementalIndex.Key(ARCHIVE, "plugins/a.jar", 1, 1), this.dir));
+    }
+
+    @Test
+    void savedIndexIsStableAcrossRuns() throws IOException {
+        final IncrementalIndex.Key key = extract("0001-a.jar", "content of a");
+        final IncrementalIndex index = IncrementalIndex.load(this.indexFile);
+        index.putExtractedFile(key, this.dir.resolve("0001-a.jar"));
+        index.putMetadata(key, "org.example.a", analyzedEntry());
+        index.save();
+        final byte[] saved = Files.readAllBytes(this.indexFile);
+
+        final IncrementalIndex second = IncrementalIndex.load(this.indexFile);
+        second.putExtractedFile(key, second.getExtractedFile(key, this.dir));
+        second.restoreMetadata(key, new SdkEntry("org.example.a", "1.0.0"), Set.of());
+        second.save();
+        assertArrayEquals(saved, Files.readAllBytes(this.indexFile));
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PomWriterTest {
+    private static final String PREAMBLE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\""
+            + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+            + " xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 https://maven.apache.org/xsd/maven-4.0.0.xsd\">\n"
+            + "  <modelVersion>4.0.0</modelVersion>\n";
+
+    @Test
+    void writesIndentedAndEscapedDocument() throws IOException {
+        final StringWriter out = new StringWriter();
+        final PomWriter xml = new PomWriter(out);
+        xml.startProject();
+        xml.element("groupId", "org.example");
+        xml.element("artifactId", "a");
+        xml.element("version", "1.0");
+        xml.newLine();
+        xml.element("name", "Tom & Jerry <3 > \"Č\"");
+        xml.element("description", null);
+        xml.newLine();
+        xml.newLine();
+        xml.comment("first");
+        xml.newLine();
+        xml.comment("second");
+        xml.startElement("dependencies");
+        xml.startElement("dependency");
+        xml.element("artifactId", "b&c");
+        xml.element("optional", "true");
+        xml.endElement();
+        xml.endElement();
+        xml.endProject();
+        xml.flush();
+
+        assertEquals(PREAMBLE
+                + "\n  <groupId>org.example</groupId>"
+                + "\n  <artifactId>a</artifactId>"
+                + "\n  <version>1.0</version>"
+                + "\n"
+                + "\n  <name>Tom &amp; Jerry &lt;3 &gt; \"Č\"</name>"
+                + "\n  <description></description>"
+                + "\n"
+                + "\n<!--first-->"
+                + "\n<!--second-->"
+                + "\n  <dependencies>"
+                + "\n    <dependency>"
+                + "\n      <artifactId>b&amp;c</artifactId>"
+                + "\n      <optional>true</optional>"
+                + "\n    </dependency>"
+                + "\n  </dependencies>"
+                + "\n</project>", out.toString());
+    }
+
+    @Test
+    void endProjectClosesOpenElements() throws IOException {
+        final StringWriter out = new StringWriter();
+        final PomWriter xml = new PomWriter(out);
+        xml.startProject();
+        xml.startElement("dependencies");
+        xml.startElement("dependency");
+        xml.characters("&&");
+        xml.endProject();
+
+        assertEquals(PREAMBLE
+                + "\n  <dependencies>"
+                + "\n    <dependency>&amp;&amp;</dependency>"
+                + "\n  </dependencies>"
+                + "\n</project>", out.toString());
+    }
+
+    @Test
+    void escapesTextStartingAndEndingWithSpecialCharacters() throws IOException {
+        final StringWriter out = new StringWriter();
+        final PomWriter xml = new PomWriter(out);
+        xml.characters("<");
+        xml.characters("a>b");
+        xml.characters("");
+        xml.characters(">&<");
+        assertEquals("&lt;a&gt;b&gt;&amp;&lt;", out.toString());
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import com.github.wilx.equinox.mavenizer.maven.plugin.RemoteArtifactChecker.RemoteState;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import static com.github.wilx.equinox.mavenizer.maven.plugin.DeployFixture.artifactPath;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks artifacts against a pre-populated {@code file:} repository.
+ */
+class RemoteArtifactCheckerTest {
+    @TempDir
+    Path dir;
+
+    private DeployFixture fixture;
+
+    @BeforeEach
+    void setUp() {
+        this.fixture = new DeployFixture(this.dir);
+    }
+
+    private static String sha1(final byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(content));
+    }
+
+    /**
+     * Writes a local artifact file and puts the artifact with the given remote content into the remote repository.
+     */
+    private Artifact artifact(final String artifactId, final String content, final String remoteContent)
+            throws IOException, NoSuchAlgorithmException {
+        final Path file = Files.writeString(this.dir.resolve(artifactId + ".jar"), content, StandardCharsets.UTF_8);
+        if (remoteContent != null) {
+            final Path remoteFile = this.fixture.remoteRepoPath.resolve(artifactPath(artifactId, "jar"));
+            Files.createDirectories(remoteFile.getParent());
+            final byte[] remoteBytes = remoteContent.getBytes(StandardCharsets.UTF_8);
+            Files.write(remoteFile, remoteBytes);
+            Files.writeString(remoteFile.resolveSibling(remoteFile.getFileName() + ".sha1"), sha1(remoteBytes),
+                    StandardCharsets.US_ASCII);
+        }
+        return new DefaultArtifact(DeployFixture.GROUP_ID, artifactId, "jar", TestSdk.BUNDLE_VERSION)
+                .setFile(file.toFile());
+    }
+
+    @Test
+    void artifactsAreComparedByChecksum() throws Exception {
+        final Artifact same = artifact("same", "content", "content");
+        final Artifact different = artifact("different", "content", "other content");
+        final Artifact missing = artifact("missing", "content", null);
+
+        try (final RemoteArtifactChecker checker = new RemoteArtifactChecker(this.fixture.repositoryLayoutProvider,
+                this.fixture.transporterProvider, this.fixture.repositorySession, this.fixture.remoteRepository())) {
+            assertEquals(RemoteState.IDENTICAL, checker.check(same));
+            assertEquals(RemoteState.DIFFERENT, checker.check(different));
+            assertEquals(RemoteState.UNKNOWN, checker.check(missing));
+            assertTrue(checker.isDeployedIdentical(same));
+            assertFalse(checker.isDeployedIdentical(different));
+        }
+    }
+
+    @Test
+    void existingArtifactsAreSkippedAndRecordedInJournal() throws Exception {
+        final Path sdkZipPath = new TestSdk()
+                .bundle("org.example.a")
+                .bundle("org.example.b", "org.example.a")
+                .write(this.dir.resolve("sdk.zip"));
+        this.fixture.newMojo(List.of(sdkZipPath.toFile())).execute();
+        // Another build deployed different content of the JAR of b.
+        final Path bJar = this.fixture.remoteRepoPath.resolve(artifactPath("org.example.b", "jar"));
+        final byte[] otherContent = "other content".getBytes(StandardCharsets.UTF_8);
+        Files.write(bJar, otherContent);
+        Files.writeString(bJar.resolveSibling(bJar.getFileName() + ".sha1"), sha1(otherContent),
+                StandardCharsets.US_ASCII);
+        Files.delete(bJar.resolveSibling(bJar.getFileName() + ".md5"));
+        this.fixture.uploads.clear();
+
+        final EquinoxMavenizerMojo mojo = this.fixture.newMojo(List.of(sdkZipPath.toFile()));
+        DeployFixture.write(mojo, "skipExistingRemoteArtifacts", true);
+        mojo.execute();
+
+        // Only the differing JAR is deployed again, with the BOM.
+        assertTrue(this.fixture.uploads.contains(artifactPath("org.example.b", "jar")), this.fixture.uploads::toString);
+        for (final String path : this.fixture.uploads) {
+            assertTrue(path.startsWith(artifactPath("org.example.b", "jar")) || path.contains("/maven-metadata.xml")
+                    || path.startsWith(DeployFixture.GROUP_ID.replace('.', '/') + "/bom/"), path);
+        }
+
+        // The skipped artifacts are recorded in the journal, resumed deployment does not deploy them.
+        this.fixture.uploads.clear();
+        final EquinoxMavenizerMojo resumedMojo = this.fixture.newMojo(List.of(sdkZipPath.toFile()));
+        DeployFixture.write(resumedMojo, "resume", true);
+        resumedMojo.execute();
+        for (final String path : this.fixture.uploads) {
+            assertTrue(path.startsWith(DeployFixture.GROUP_ID.replace('.', '/') + "/bom/"), path);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.DependencyType;
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.ExportPackage;
+import com.github.wilx.equinox.mavenizer.maven.plugin.SdkEntry.ImportPackage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SdkEntryTest {
+    @Test
+    void importsOfPackageInDifferentRangesAreKept() {
+        final SdkEntry sdkEntry = new SdkEntry("a", "1.0.0");
+        sdkEntry.addImportPackage("p", DependencyType.NORMAL, "[2.0.0,3.0.0)");
+        sdkEntry.addImportPackage("p", DependencyType.NORMAL, null);
+        sdkEntry.addImportPackage("p", DependencyType.NORMAL, "[1.0.0,2.0.0)");
+        sdkEntry.addImportPackage("p", DependencyType.NORMAL, "[2.0.0,3.0.0)");
+        sdkEntry.addImportPackage("p", DependencyType.OPTIONAL, "[1.0.0,2.0.0)");
+
+        assertEquals(List.of(
+                new ImportPackage("p", DependencyType.NORMAL, null),
+                new ImportPackage("p", DependencyType.NORMAL, "[1.0.0,2.0.0)"),
+                new ImportPackage("p", DependencyType.NORMAL, "[2.0.0,3.0.0)"),
+                new ImportPackage("p", DependencyType.OPTIONAL, "[1.0.0,2.0.0)")),
+                new ArrayList<>(sdkEntry.getImportPackage()));
+    }
+
+    @Test
+    void exportsOfPackageInDifferentVersionsAreKept() {
+        final SdkEntry sdkEntry = new SdkEntry("a", "1.0.0");
+        sdkEntry.addExportPackage("p", "2.0.0");
+        sdkEntry.addExportPackage("p", null);
+        sdkEntry.addExportPackage("p", "2.0.0");
+
+        assertEquals(List.of(new ExportPackage("p", null), new ExportPackage("p", "2.0.0")),
+                new ArrayList<>(sdkEntry.getExportPackage()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SymbolTableTest {
+    @Test
+    void internAssignsDenseIds() {
+        final SymbolTable symbols = new SymbolTable();
+        assertEquals(0, symbols.intern("a"));
+        assertEquals(1, symbols.intern("b"));
+        assertEquals(0, symbols.intern("a"));
+        assertEquals(2, symbols.size());
+        assertEquals("b", symbols.symbol(1));
+        assertEquals(1, symbols.find("b"));
+        assertEquals(SymbolTable.NOT_FOUND, symbols.find("c"));
+        assertEquals(2, symbols.size());
+    }
+
+    @Test
+    void canonicalReturnsFirstInternedInstance() {
+        final SymbolTable symbols = new SymbolTable();
+        final String first = new String("org.example");
+        final String second = new String("org.example");
+        assertNotSame(first, second);
+        assertSame(first, symbols.canonical(first));
+        assertSame(first, symbols.canonical(second));
+        assertSame(first, symbols.symbol(symbols.find(second)));
+    }
+
+    @Test
+    void concurrentInterningKeepsIdsDenseAndUnique() throws Exception {
+        final SymbolTable symbols = new SymbolTable();
+        final int threads = 8;
+        final int count = 2000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                tasks.add(() -> {
+                    for (int i = 0; i < count; i++) {
+                        final String symbol = "s" + (i + offset) % count;
+                        assertEquals(symbol, symbols.symbol(symbols.intern(symbol)));
+                    }
+                    return null;
+                });
+            }
+            for (final Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(count, symbols.size());
+        final Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            final int id = symbols.find("s" + i);
+            assertEquals("s" + i, symbols.symbol(id));
+            ids.add(id);
+        }
+        assertEquals(count, ids.size());
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.wilx.equinox.mavenizer.maven.plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds small p2 style SDK archives for tests. Each bundle exports a package named after its symbolic name.
+ */
+final class TestSdk {
+    static final String BUNDLE_VERSION = "1.0.0.v20240101-0000";
+
+    private final Map<String, String> bundles = new LinkedHashMap<>();
+
+    /**
+     * Adds a bundle importing packages of the given bundles.
+     */
+    TestSdk bundle(final String bsn, final String... importedBsns) {
+        this.bundles.put(bsn, String.join(",", importedBsns));
+        return this;
+    }
+
+    /**
+     * Writes the SDK archive.
+     */
+    Path write(final Path sdkZipPath) throws IOException {
+        Files.createDirectories(sdkZipPath.getParent());
+        try (final OutputStream out = Files.newOutputStream(sdkZipPath);
+             final ZipOutputStream zip = new ZipOutputStream(out)) {
+            writeEntry(zip, "artifacts.jar", jar(new Manifest()));
+            writeEntry(zip, "content.jar", jar(new Manifest()));
+            zip.putNextEntry(new ZipEntry("plugins/"));
+            zip.closeEntry();
+            for (final Map.Entry<String, String> bundle : this.bundles.entrySet()) {
+                writeEntry(zip, "plugins/" + bundle.getKey() + "_" + BUNDLE_VERSION + ".jar",
+                        jar(bundleManifest(bundle.getKey(), bundle.getValue())));
+            }
+        }
+        return sdkZipPath;
+    }
+
+    private static Manifest bundleManifest(final String bsn, final String imports) {
+        final Manifest manifest = new Manifest();
+        final Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue("Bundle-ManifestVersion", "2");
+        attributes.putValue("Bundle-SymbolicName", bsn);
+        attributes.putValue("Bundle-Version", BUNDLE_VERSION);
+        attributes.putValue("Bundle-Name", "Test bundle " + bsn);
+        attributes.putValue("Export-Package", bsn + ";version=\"1.0.0\"");
+        if (!imports.isEmpty()) {
+            attributes.putValue("Import-Package", imports);
+        }
+        return manifest;
+    }
+
+    private static byte[] jar(final Manifest manifest) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final JarOutputStream jar = new JarOutputStream(bytes, manifest)) {
+            jar.putNextEntry(new ZipEntry("README.txt"));
+            jar.write("test".getBytes(StandardCharsets.UTF_8));
+            jar.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeEntry(final ZipOutputStream zip, final String name, final byte[] bytes)
+            throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+}